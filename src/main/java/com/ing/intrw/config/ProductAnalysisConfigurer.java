@@ -0,0 +1,35 @@
+package com.ing.intrw.config;
+
+import org.apache.lucene.analysis.core.LowerCaseFilterFactory;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilterFactory;
+import org.apache.lucene.analysis.ngram.EdgeNGramFilterFactory;
+import org.apache.lucene.analysis.standard.StandardTokenizerFactory;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurationContext;
+import org.hibernate.search.backend.lucene.analysis.LuceneAnalysisConfigurer;
+
+/**
+ * Analyzers used by the product full-text index.
+ * "text" is used for relevance and fuzzy matching, "autocomplete" indexes word prefixes
+ * so that partially typed words match without wildcard queries.
+ */
+public class ProductAnalysisConfigurer implements LuceneAnalysisConfigurer {
+
+    public static final String TEXT_ANALYZER = "text";
+    public static final String AUTOCOMPLETE_ANALYZER = "autocomplete";
+
+    @Override
+    public void configure(LuceneAnalysisConfigurationContext context) {
+        context.analyzer(TEXT_ANALYZER).custom()
+                .tokenizer(StandardTokenizerFactory.class)
+                .tokenFilter(LowerCaseFilterFactory.class)
+                .tokenFilter(ASCIIFoldingFilterFactory.class);
+
+        context.analyzer(AUTOCOMPLETE_ANALYZER).custom()
+                .tokenizer(StandardTokenizerFactory.class)
+                .tokenFilter(LowerCaseFilterFactory.class)
+                .tokenFilter(ASCIIFoldingFilterFactory.class)
+                .tokenFilter(EdgeNGramFilterFactory.class)
+                .param("minGramSize", "2")
+                .param("maxGramSize", "20");
+    }
+}
@@ -1,6 +1,10 @@
 package com.ing.intrw.config;
 
 import com.ing.intrw.exception.UserAccessDeniedHandler;
+import com.ing.intrw.filter.ConcurrencyLimitFilter;
+import com.ing.intrw.filter.RateLimitFilter;
+import com.ing.intrw.service.RateLimiter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -11,12 +15,15 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.AuthorizationFilter;
+import org.springframework.security.web.authentication.www.BasicAuthenticationFilter;
 
 @Configuration
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, UserAccessDeniedHandler userAccessDeniedHandler) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, UserAccessDeniedHandler userAccessDeniedHandler,
+                                                   RateLimiter rateLimiter) throws Exception {
         http
                 .csrf().disable()
                 .authorizeHttpRequests(auth -> auth
@@ -32,7 +39,10 @@ public class SecurityConfig {
                 .exceptionHandling()
                 .accessDeniedHandler(userAccessDeniedHandler)
                 .and()
-                .httpBasic();
+                .httpBasic()
+                .and()
+                .addFilterBefore(new ConcurrencyLimitFilter(rateLimiter), BasicAuthenticationFilter.class)
+                .addFilterAfter(new RateLimitFilter(rateLimiter), AuthorizationFilter.class);
         return http.build();
     }
 
@@ -60,7 +70,7 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${products.security.bcrypt-strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
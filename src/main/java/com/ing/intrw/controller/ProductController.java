@@ -2,15 +2,22 @@ package com.ing.intrw.controller;
 
 import com.ing.intrw.exception.InvalidRequestException;
 import com.ing.intrw.exception.ProductNotFoundException;
+import com.ing.intrw.model.LowStockAlert;
+import com.ing.intrw.model.PriceHistory;
+import com.ing.intrw.model.PriceHistoryBucket;
 import com.ing.intrw.model.Product;
 import com.ing.intrw.service.ProductService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +26,7 @@ import java.util.Map;
 public class ProductController {
 
     private static final Logger log = LoggerFactory.getLogger(ProductController.class);
+    static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
 
     @Autowired
     private ProductService productService;
@@ -74,36 +82,73 @@ public class ProductController {
         }
     }
 
-    @GetMapping("/")
+    @GetMapping(value = "/", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<List<Product>> listAllItems() {
         List<Product> products = productService.listAllItems();
         return ResponseEntity.ok(products);
     }
 
-    @GetMapping("/category/{category}")
+    @GetMapping(value = "/category/{category}", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<List<Product>> filterItemsByCategory(@PathVariable String category) {
         List<Product> products = productService.filterItemsByCategory(category);
         return ResponseEntity.ok(products);
     }
 
-    @GetMapping("/price")
+    @GetMapping(value = "/price", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<List<Product>> filterItemsByPriceRange(@RequestParam Double minPrice, @RequestParam Double maxPrice) {
         List<Product> products = productService.filterItemsByPriceRange(minPrice, maxPrice);
         return ResponseEntity.ok(products);
     }
 
-    @GetMapping("/sort/name")
+    @GetMapping(value = "/sort/name", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<List<Product>> sortItemsByName() {
         List<Product> products = productService.sortItemsByName();
         return ResponseEntity.ok(products);
     }
 
-    @GetMapping("/sort/stock")
+    @GetMapping(value = "/sort/stock", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
     public ResponseEntity<List<Product>> sortItemsByStockQuantity() {
         List<Product> products = productService.sortItemsByStockQuantity();
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping(value = "/text-search", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE, APPLICATION_SMILE_VALUE})
+    public ResponseEntity<List<Product>> searchProducts(@RequestParam String q,
+                                                        @RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "20") int size) {
+        List<Product> products = productService.searchProducts(q, page, size);
+        return ResponseEntity.ok(products);
+    }
+
+    @GetMapping("/{id}/price-history")
+    public ResponseEntity<List<PriceHistory>> getPriceHistory(@PathVariable Long id,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        List<PriceHistory> history = productService.getPriceHistory(id, from, to);
+        return ResponseEntity.ok(history);
+    }
+
+    @GetMapping("/{id}/price-history/aggregate")
+    public ResponseEntity<List<PriceHistoryBucket>> getPriceHistoryAggregates(@PathVariable Long id,
+                                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                                              @RequestParam(defaultValue = "PT1H") String bucket) {
+        List<PriceHistoryBucket> buckets = productService.getPriceHistoryAggregates(id, from, to, bucket);
+        return ResponseEntity.ok(buckets);
+    }
+
+    @GetMapping("/low-stock")
+    public ResponseEntity<List<LowStockAlert>> listLowStockProducts() {
+        List<LowStockAlert> alerts = productService.listLowStockProducts();
+        return ResponseEntity.ok(alerts);
+    }
+
+    @GetMapping(value = "/low-stock/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamLowStockAlerts() {
+        log.info("Subscribing to low-stock alerts");
+        return productService.subscribeToLowStockAlerts();
+    }
+
     @PutMapping("/{id}/stock")
     public ResponseEntity<Product> updateStockQuantity(@PathVariable Long id, @RequestBody Map<String, Integer> requestBody) {
         Integer newQuantity = requestBody.get("stock");
@@ -0,0 +1,50 @@
+package com.ing.intrw.filter;
+
+import com.ing.intrw.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Applies the global concurrency limit of {@link RateLimiter} to the product API. Runs before
+ * authentication, so an overloaded server sheds requests without checking their passwords.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final RateLimiter rateLimiter;
+
+    public ConcurrencyLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/products");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RateLimiter.Decision decision = rateLimiter.tryEnter();
+        if (!decision.allowed()) {
+            log.warn("Shed request to '{}' with status {}", request.getRequestURI(), HttpStatus.SERVICE_UNAVAILABLE.value());
+            RateLimitFilter.reject(response, HttpStatus.SERVICE_UNAVAILABLE, decision.retryAfterSeconds(),
+                    "Service is overloaded, retry after " + decision.retryAfterSeconds() + " seconds");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            rateLimiter.exit();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.ing.intrw.filter;
+
+import com.ing.intrw.service.RateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+
+/**
+ * Applies the per-user token buckets of {@link RateLimiter} to the product API. Runs after authorization,
+ * so it only sees authenticated requests that are allowed to reach the controller. The global concurrency
+ * limit is applied earlier by {@link ConcurrencyLimitFilter}.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    static final int CHEAP_COST = 1;
+    static final int EXPENSIVE_COST = 10;
+
+    // endpoints that read or sort a large part of the catalog
+    private static final List<String> EXPENSIVE_PATTERNS = List.of(
+            "/api/products/",
+            "/api/products/sort/**",
+            "/api/products/category/**",
+            "/api/products/price",
+            "/api/products/text-search"
+    );
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final RateLimiter rateLimiter;
+
+    public RateLimitFilter(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/products");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        RateLimiter.Decision decision = rateLimiter.tryConsume(authentication, costOf(request));
+        if (!decision.allowed()) {
+            log.warn("Rejected request from user '{}' to '{}' with status {}", authentication.getName(),
+                    request.getRequestURI(), HttpStatus.TOO_MANY_REQUESTS.value());
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, decision.retryAfterSeconds(), "Rate limit exceeded for user '"
+                    + authentication.getName() + "', retry after " + decision.retryAfterSeconds() + " seconds");
+            return;
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private int costOf(HttpServletRequest request) {
+        if (!HttpMethod.GET.matches(request.getMethod())) {
+            return CHEAP_COST;
+        }
+        String path = request.getRequestURI();
+        for (String pattern : EXPENSIVE_PATTERNS) {
+            if (pathMatcher.match(pattern, path)) {
+                return EXPENSIVE_COST;
+            }
+        }
+        return CHEAP_COST;
+    }
+
+    static void reject(HttpServletResponse response, HttpStatus status, long retryAfterSeconds, String message)
+            throws IOException {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/json");
+
+        PrintWriter writer = response.getWriter();
+        writer.write("{\"message\": \"" + message + "\"}");
+        writer.flush();
+    }
+}
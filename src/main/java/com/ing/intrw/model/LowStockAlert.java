@@ -0,0 +1,20 @@
+package com.ing.intrw.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LowStockAlert {
+    private Long productId;
+    private String name;
+    private String sku;
+    private String category;
+    private Integer stock;
+    private Integer threshold;
+    private LocalDateTime detectedAt;
+}
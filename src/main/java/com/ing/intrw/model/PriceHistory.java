@@ -0,0 +1,42 @@
+package com.ing.intrw.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One price change of a product. Rows are only ever appended, and the (product_id, recorded_at) index
+ * turns a history query into a single index range scan.
+ */
+@Entity
+@Table(name = "price_history", indexes = @Index(name = "idx_price_history_product_time", columnList = "productId, recordedAt"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceHistory {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false, updatable = false)
+    private Long productId;
+    @Column(nullable = false, updatable = false)
+    private Double price;
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime recordedAt;
+
+    public PriceHistory(Long productId, Double price, LocalDateTime recordedAt) {
+        this.productId = productId;
+        this.price = price;
+        this.recordedAt = recordedAt;
+    }
+}
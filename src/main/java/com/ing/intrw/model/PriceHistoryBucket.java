@@ -0,0 +1,18 @@
+package com.ing.intrw.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceHistoryBucket {
+    private LocalDateTime bucketStart;
+    private Double min;
+    private Double max;
+    private Double last;
+    private Integer changes;
+}
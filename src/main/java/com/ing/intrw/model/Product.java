@@ -1,31 +1,55 @@
 package com.ing.intrw.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.ing.intrw.config.ProductAnalysisConfigurer;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.Version;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.FullTextField;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.Indexed;
+import org.hibernate.search.mapper.pojo.mapping.definition.annotation.KeywordField;
 
 import java.time.LocalDateTime;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Product.CACHE_REGION)
+@Indexed
+@DynamicUpdate
 @Data
 @NoArgsConstructor
-@AllArgsConstructor
 public class Product {
+    public static final String CACHE_REGION = "product";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @FullTextField(analyzer = ProductAnalysisConfigurer.TEXT_ANALYZER)
+    @FullTextField(name = "name_autocomplete", analyzer = ProductAnalysisConfigurer.AUTOCOMPLETE_ANALYZER,
+            searchAnalyzer = ProductAnalysisConfigurer.TEXT_ANALYZER)
     private String name;
+    @FullTextField(analyzer = ProductAnalysisConfigurer.TEXT_ANALYZER)
+    @FullTextField(name = "description_autocomplete", analyzer = ProductAnalysisConfigurer.AUTOCOMPLETE_ANALYZER,
+            searchAnalyzer = ProductAnalysisConfigurer.TEXT_ANALYZER)
     private String description;
     private Double price;
     private Integer stock;
+    @KeywordField
     private String category;
     private String sku;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
 
     public Product(String name, String description, Double price, Integer stock, String category, String sku){
         this.name = name;
@@ -45,4 +69,11 @@ public class Product {
         this.category = category;
         this.sku = sku;
     }
+
+    public Product(Long id, String name, String description, Double price, Integer stock, String category, String sku,
+                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, description, price, stock, category, sku);
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
 }
@@ -0,0 +1,61 @@
+package com.ing.intrw.repository;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Lazily merges already sorted runs into one sorted sequence, holding only the head of each run in a heap.
+ * Ties are resolved in run order, so the merge is stable.
+ */
+public class KWayMergeIterator<T> implements Iterator<T> {
+
+    private final PriorityQueue<Head<T>> heads;
+
+    public KWayMergeIterator(List<? extends Iterator<? extends T>> runs, Comparator<? super T> comparator) {
+        Comparator<Head<T>> byValue = (left, right) -> comparator.compare(left.value, right.value);
+        this.heads = new PriorityQueue<>(Math.max(1, runs.size()), byValue.thenComparingInt(head -> head.run));
+        for (int run = 0; run < runs.size(); run++) {
+            advance(runs.get(run), run);
+        }
+    }
+
+    public static <T> List<T> merge(List<? extends List<? extends T>> sortedRuns, Comparator<? super T> comparator) {
+        List<Iterator<? extends T>> iterators = new ArrayList<>(sortedRuns.size());
+        int size = 0;
+        for (List<? extends T> run : sortedRuns) {
+            iterators.add(run.iterator());
+            size += run.size();
+        }
+        List<T> merged = new ArrayList<>(size);
+        new KWayMergeIterator<T>(iterators, comparator).forEachRemaining(merged::add);
+        return merged;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !heads.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        Head<T> head = heads.poll();
+        if (head == null) {
+            throw new NoSuchElementException();
+        }
+        advance(head.source, head.run);
+        return head.value;
+    }
+
+    private void advance(Iterator<? extends T> source, int run) {
+        if (source.hasNext()) {
+            heads.add(new Head<>(source.next(), source, run));
+        }
+    }
+
+    private record Head<T>(T value, Iterator<? extends T> source, int run) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.ing.intrw.repository;
+
+import com.ing.intrw.model.PriceHistory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface PriceHistoryRepository extends JpaRepository<PriceHistory, Long> {
+    List<PriceHistory> findByProductIdAndRecordedAtBetweenOrderByRecordedAtAscIdAsc(Long productId, LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Streams the same rows as {@link #findByProductIdAndRecordedAtBetweenOrderByRecordedAtAscIdAsc} as projections,
+     * which are not kept in the persistence context. Must be called inside a transaction and closed.
+     */
+    @Query("select h.price as price, h.recordedAt as recordedAt from PriceHistory h "
+            + "where h.productId = :productId and h.recordedAt between :from and :to order by h.recordedAt, h.id")
+    Stream<PricePoint> streamPricePoints(@Param("productId") Long productId, @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    interface PricePoint {
+        Double getPrice();
+
+        LocalDateTime getRecordedAt();
+    }
+}
@@ -0,0 +1,94 @@
+package com.ing.intrw.repository;
+
+import com.ing.intrw.exception.SearchUnavailableException;
+import com.ing.intrw.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.PersistenceUnit;
+import org.hibernate.search.mapper.orm.Search;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Full-text queries against the embedded Lucene index of products.
+ * The index itself is kept up to date by Hibernate Search whenever a Product is saved or deleted.
+ */
+@Repository
+public class ProductSearchRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchRepository.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @PersistenceUnit
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${products.search.reindex-on-startup:false}")
+    private boolean reindexOnStartup;
+
+    // the index only covers the primary datasource, so it cannot answer for sharded products
+    @Value("${products.sharding.enabled:false}")
+    private boolean shardingEnabled;
+
+    @Transactional(readOnly = true)
+    public List<Product> search(String text, int page, int size) {
+        if (shardingEnabled) {
+            throw new SearchUnavailableException("Full-text search is not available while products are sharded");
+        }
+        return Search.session(entityManager)
+                .search(Product.class)
+                .where(f -> f.bool()
+                        .should(f.match()
+                                .field("name").boost(3.0f)
+                                .field("description")
+                                .matching(text)
+                                .fuzzy(1, 1))
+                        .should(f.match()
+                                .field("name_autocomplete").boost(2.0f)
+                                .field("description_autocomplete").boost(0.5f)
+                                .matching(text)))
+                .fetchHits(Math.toIntExact((long) page * size), size);
+    }
+
+    /**
+     * The index lives on the filesystem and survives restarts. It is rebuilt at startup when asked to, or when it
+     * does not hold the same number of products as the database: a freshly created index next to a persistent
+     * database, or a kept index next to a fresh in-memory database.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reindexOnStartup() throws InterruptedException {
+        if (!reindexOnStartup) {
+            long stored;
+            long indexed;
+            EntityManager countingEntityManager = entityManagerFactory.createEntityManager();
+            try {
+                stored = countingEntityManager.createQuery("select count(p) from Product p", Long.class).getSingleResult();
+                indexed = Search.session(countingEntityManager).search(Product.class)
+                        .where(f -> f.matchAll())
+                        .fetchTotalHitCount();
+            } finally {
+                countingEntityManager.close();
+            }
+            if (stored == indexed) {
+                log.info("Product search index is up to date with {} products", indexed);
+                return;
+            }
+            log.warn("Product search index holds {} products but the database holds {}", indexed, stored);
+        }
+        log.info("Rebuilding product search index");
+        Search.mapping(entityManagerFactory)
+                .scope(Product.class)
+                .massIndexer()
+                .startAndWait();
+        log.info("Product search index rebuilt");
+    }
+}
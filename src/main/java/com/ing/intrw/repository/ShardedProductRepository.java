@@ -0,0 +1,633 @@
+package com.ing.intrw.repository;
+
+import com.ing.intrw.model.Product;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.EntityNotFoundException;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Routes ProductRepository calls to N independent product databases.
+ * <p>
+ * New products are placed on the shard chosen by the hash of their category, so category queries read a single
+ * shard. Each shard hands out ids congruent to its index modulo N, so lookups by id are routed without a directory.
+ * Full listings, sorts and price range queries run on all shards in parallel, and sorted results are k-way merged.
+ * A product stays on its original shard if its category is changed later.
+ * <p>
+ * Shards have no second-level cache and no full-text index; both only cover the primary datasource, so text
+ * search finds no products while sharding is enabled.
+ * <p>
+ * Sorted listings are merged lazily from the per-shard results, but findAll(Sort) still has to return a List, so
+ * the merged list is materialised next to the shard lists. Both hold the same Product instances, so the extra cost
+ * is one reference array of the result size rather than a second copy of the products.
+ */
+@Repository
+@Primary
+@ConditionalOnProperty(prefix = "products.sharding", name = "enabled", havingValue = "true")
+public class ShardedProductRepository implements ProductRepository {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardedProductRepository.class);
+
+    @SuppressWarnings("rawtypes")
+    private static final Map<String, Function<Product, Comparable>> SORT_PROPERTIES = Map.of(
+            "id", Product::getId,
+            "name", Product::getName,
+            "description", Product::getDescription,
+            "price", Product::getPrice,
+            "stock", Product::getStock,
+            "category", Product::getCategory,
+            "sku", Product::getSku,
+            "createdAt", Product::getCreatedAt,
+            "updatedAt", Product::getUpdatedAt
+    );
+
+    @Value("${products.sharding.shard-count:4}")
+    private int shardCount;
+
+    @Value("${products.sharding.url-template:jdbc:h2:file:./data/shards/products-%d}")
+    private String urlTemplate;
+
+    @Value("${products.sharding.username:sa}")
+    private String username;
+
+    @Value("${products.sharding.password:}")
+    private String password;
+
+    private static final ProjectionFactory PROJECTIONS = new SpelAwareProxyProjectionFactory();
+
+    private final List<Shard> shards = new ArrayList<>();
+    private ExecutorService fanOutExecutor;
+
+    @PostConstruct
+    void start() {
+        for (int index = 0; index < shardCount; index++) {
+            shards.add(Shard.open(index, shardCount, String.format(urlTemplate, index), username, password));
+        }
+        // one thread per shard connection, so concurrent fan-outs are limited by the shard pools and not by this executor
+        int threadCount = shards.stream().mapToInt(Shard::maximumPoolSize).sum();
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threadCount, threadCount, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "product-shard-fan-out-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        fanOutExecutor = executor;
+        log.info("Product storage sharded across {} databases, {} fan-out threads", shardCount, threadCount);
+        log.warn("Full-text search does not cover sharded products; GET /api/products/text-search returns 501 Not Implemented");
+    }
+
+    @PreDestroy
+    void stop() {
+        fanOutExecutor.shutdown();
+        shards.forEach(Shard::close);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public int shardOf(Long id) {
+        return Math.floorMod(id, shards.size());
+    }
+
+    public int shardOfCategory(String category) {
+        return Math.floorMod(Objects.hashCode(category), shards.size());
+    }
+
+    @Override
+    public List<Product> findByCategory(String category) {
+        return shards.get(shardOfCategory(category)).read(repository -> repository.findByCategory(category));
+    }
+
+    @Override
+    public List<Product> findByPriceBetween(Double minPrice, Double maxPrice) {
+        return concat(fanOut(shard -> shard.read(repository -> repository.findByPriceBetween(minPrice, maxPrice))));
+    }
+
+    @Override
+    public List<Product> findByStockLessThan(Integer stock) {
+        return concat(fanOut(shard -> shard.read(repository -> repository.findByStockLessThan(stock))));
+    }
+
+    @Override
+    public <S extends Product> S save(S entity) {
+        return shardFor(entity).write(repository -> repository.save(entity));
+    }
+
+    @Override
+    public <S extends Product> S saveAndFlush(S entity) {
+        return shardFor(entity).write(repository -> repository.saveAndFlush(entity));
+    }
+
+    @Override
+    public <S extends Product> List<S> saveAll(Iterable<S> entities) {
+        List<S> input = new ArrayList<>();
+        entities.forEach(input::add);
+        Map<Shard, List<Integer>> positionsByShard = new LinkedHashMap<>();
+        for (int position = 0; position < input.size(); position++) {
+            positionsByShard.computeIfAbsent(shardFor(input.get(position)), shard -> new ArrayList<>()).add(position);
+        }
+
+        List<S> saved = new ArrayList<>(Collections.nCopies(input.size(), null));
+        fanOut(positionsByShard.keySet(), shard -> {
+            List<Integer> positions = positionsByShard.get(shard);
+            List<S> batch = positions.stream().map(input::get).toList();
+            List<S> result = shard.write(repository -> repository.saveAll(batch));
+            for (int i = 0; i < positions.size(); i++) {
+                saved.set(positions.get(i), result.get(i));
+            }
+            return null;
+        });
+        return saved;
+    }
+
+    @Override
+    public <S extends Product> List<S> saveAllAndFlush(Iterable<S> entities) {
+        return saveAll(entities);
+    }
+
+    @Override
+    public Optional<Product> findById(Long id) {
+        return shardForId(id).read(repository -> repository.findById(id));
+    }
+
+    @Override
+    public boolean existsById(Long id) {
+        return shardForId(id).read(repository -> repository.existsById(id));
+    }
+
+    @Override
+    public Product getReferenceById(Long id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id));
+    }
+
+    @Override
+    @Deprecated
+    public Product getById(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    @Deprecated
+    public Product getOne(Long id) {
+        return getReferenceById(id);
+    }
+
+    @Override
+    public List<Product> findAll() {
+        return concat(fanOut(shard -> shard.read(repository -> repository.findAll())));
+    }
+
+    @Override
+    public List<Product> findAllById(Iterable<Long> ids) {
+        Map<Shard, List<Long>> idsByShard = groupIds(ids);
+        return concat(fanOut(idsByShard.keySet(), shard -> shard.read(repository -> repository.findAllById(idsByShard.get(shard)))));
+    }
+
+    @Override
+    public List<Product> findAll(Sort sort) {
+        List<List<Product>> sortedRuns = fanOut(shard -> shard.read(repository -> repository.findAll(sort)));
+        return KWayMergeIterator.merge(sortedRuns, comparatorFor(sort));
+    }
+
+    @Override
+    public Page<Product> findAll(Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(pageable.getSort()));
+        }
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        // every shard returns enough rows to fill the requested page on its own
+        Pageable head = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), sort);
+        List<List<Product>> sortedRuns = fanOut(shard -> shard.read(repository -> repository.findAll(head).getContent()));
+        return new PageImpl<>(page(sortedRuns, comparatorFor(sort), pageable), pageable, count());
+    }
+
+    @Override
+    public long count() {
+        return fanOut(shard -> shard.read(repository -> repository.count())).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public void deleteById(Long id) {
+        shardForId(id).write(repository -> {
+            repository.deleteById(id);
+            return null;
+        });
+    }
+
+    @Override
+    public void delete(Product entity) {
+        deleteById(entity.getId());
+    }
+
+    @Override
+    public void deleteAllById(Iterable<? extends Long> ids) {
+        Map<Shard, List<Long>> idsByShard = groupIds(ids);
+        fanOut(idsByShard.keySet(), shard -> shard.write(repository -> {
+            repository.deleteAllById(idsByShard.get(shard));
+            return null;
+        }));
+    }
+
+    @Override
+    public void deleteAll(Iterable<? extends Product> entities) {
+        List<Long> ids = new ArrayList<>();
+        entities.forEach(entity -> ids.add(entity.getId()));
+        deleteAllById(ids);
+    }
+
+    @Override
+    public void deleteAll() {
+        fanOut(shard -> shard.write(repository -> {
+            repository.deleteAll();
+            return null;
+        }));
+    }
+
+    @Override
+    public void deleteAllInBatch(Iterable<Product> entities) {
+        List<Long> ids = new ArrayList<>();
+        entities.forEach(entity -> ids.add(entity.getId()));
+        deleteAllByIdInBatch(ids);
+    }
+
+    @Override
+    public void deleteAllByIdInBatch(Iterable<Long> ids) {
+        Map<Shard, List<Long>> idsByShard = groupIds(ids);
+        fanOut(idsByShard.keySet(), shard -> shard.write(repository -> {
+            repository.deleteAllByIdInBatch(idsByShard.get(shard));
+            return null;
+        }));
+    }
+
+    @Override
+    public void deleteAllInBatch() {
+        fanOut(shard -> shard.write(repository -> {
+            repository.deleteAllInBatch();
+            return null;
+        }));
+    }
+
+    @Override
+    public void flush() {
+        // every shard operation runs in its own transaction, which flushes on commit
+    }
+
+    @Override
+    public <S extends Product> Optional<S> findOne(Example<S> example) {
+        List<S> matches = concat(fanOut(shard -> shard.read(repository -> repository.findOne(example).map(List::of).orElse(List.of()))));
+        if (matches.size() > 1) {
+            throw new IncorrectResultSizeDataAccessException(1, matches.size());
+        }
+        return matches.stream().findFirst();
+    }
+
+    @Override
+    public <S extends Product> List<S> findAll(Example<S> example) {
+        return concat(fanOut(shard -> shard.read(repository -> repository.findAll(example))));
+    }
+
+    @Override
+    public <S extends Product> List<S> findAll(Example<S> example, Sort sort) {
+        List<List<S>> sortedRuns = fanOut(shard -> shard.read(repository -> repository.findAll(example, sort)));
+        return KWayMergeIterator.merge(sortedRuns, comparatorFor(sort));
+    }
+
+    @Override
+    public <S extends Product> Page<S> findAll(Example<S> example, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new PageImpl<>(findAll(example, pageable.getSort()));
+        }
+        return new PageImpl<>(pageContent(example, pageable), pageable, count(example));
+    }
+
+    @Override
+    public <S extends Product> long count(Example<S> example) {
+        return fanOut(shard -> shard.read(repository -> repository.count(example))).stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public <S extends Product> boolean exists(Example<S> example) {
+        return fanOut(shard -> shard.read(repository -> repository.exists(example))).contains(true);
+    }
+
+    @Override
+    public <S extends Product, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        return queryFunction.apply(new ExampleFluentQuery<>(example, Sort.unsorted(), 0, example.getProbeType()));
+    }
+
+    private <S extends Product> List<S> pageContent(Example<S> example, Pageable pageable) {
+        Sort sort = pageable.getSort().isSorted() ? pageable.getSort() : Sort.by("id");
+        Pageable head = PageRequest.of(0, (int) pageable.getOffset() + pageable.getPageSize(), sort);
+        List<List<S>> sortedRuns = fanOut(shard -> shard.read(repository -> repository.findAll(example, head).getContent()));
+        return page(sortedRuns, comparatorFor(sort), pageable);
+    }
+
+    private Shard shardFor(Product product) {
+        return product.getId() != null ? shardForId(product.getId()) : shards.get(shardOfCategory(product.getCategory()));
+    }
+
+    private Shard shardForId(Long id) {
+        return shards.get(shardOf(id));
+    }
+
+    private Map<Shard, List<Long>> groupIds(Iterable<? extends Long> ids) {
+        Map<Shard, List<Long>> idsByShard = new LinkedHashMap<>();
+        for (Long id : ids) {
+            idsByShard.computeIfAbsent(shardForId(id), shard -> new ArrayList<>()).add(id);
+        }
+        return idsByShard;
+    }
+
+    private <R> List<R> fanOut(Function<Shard, R> query) {
+        return fanOut(shards, query);
+    }
+
+    private <R> List<R> fanOut(Iterable<Shard> targets, Function<Shard, R> query) {
+        List<CompletableFuture<R>> futures = new ArrayList<>();
+        for (Shard shard : targets) {
+            futures.add(CompletableFuture.supplyAsync(() -> query.apply(shard), fanOutExecutor));
+        }
+        try {
+            List<R> results = new ArrayList<>(futures.size());
+            for (CompletableFuture<R> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static <T> List<T> concat(List<? extends List<? extends T>> results) {
+        List<T> all = new ArrayList<>();
+        results.forEach(all::addAll);
+        return all;
+    }
+
+    private static <T> List<T> page(List<? extends List<? extends T>> sortedRuns, Comparator<? super T> comparator, Pageable pageable) {
+        List<Iterator<? extends T>> iterators = new ArrayList<>();
+        sortedRuns.forEach(run -> iterators.add(run.iterator()));
+        Iterator<T> merged = new KWayMergeIterator<>(iterators, comparator);
+        for (long skipped = 0; skipped < pageable.getOffset() && merged.hasNext(); skipped++) {
+            merged.next();
+        }
+        List<T> content = new ArrayList<>(pageable.getPageSize());
+        while (content.size() < pageable.getPageSize() && merged.hasNext()) {
+            content.add(merged.next());
+        }
+        return content;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static Comparator<Product> comparatorFor(Sort sort) {
+        Comparator<Product> comparator = null;
+        for (Sort.Order order : sort) {
+            Function<Product, Comparable> property = SORT_PROPERTIES.get(order.getProperty());
+            if (property == null) {
+                throw new IllegalArgumentException("Cannot sort products across shards by: " + order.getProperty());
+            }
+            Comparator<Product> next = Comparator.comparing(property, Comparator.nullsFirst(Comparator.naturalOrder()));
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        return comparator == null ? Comparator.comparing(Product::getId) : comparator;
+    }
+
+    /**
+     * Fluent query by example across all shards, built on the fan-out findAll, count and exists methods above.
+     * Property projections are only a fetch hint, so whole products are always loaded.
+     */
+    private final class ExampleFluentQuery<S extends Product, R> implements FluentQuery.FetchableFluentQuery<R> {
+        private final Example<S> example;
+        private final Sort sort;
+        private final int limit;
+        private final Class<R> resultType;
+
+        private ExampleFluentQuery(Example<S> example, Sort sort, int limit, Class<R> resultType) {
+            this.example = example;
+            this.sort = sort;
+            this.limit = limit;
+            this.resultType = resultType;
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> sortBy(Sort sort) {
+            return new ExampleFluentQuery<>(example, this.sort.and(sort), limit, resultType);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> limit(int limit) {
+            if (limit < 0) {
+                throw new IllegalArgumentException("Limit must not be negative");
+            }
+            return new ExampleFluentQuery<>(example, sort, limit, resultType);
+        }
+
+        @Override
+        public <T> FluentQuery.FetchableFluentQuery<T> as(Class<T> resultType) {
+            if (!resultType.isAssignableFrom(example.getProbeType()) && !resultType.isInterface()) {
+                throw new IllegalArgumentException("Products can only be projected to a supertype or an interface, not " + resultType.getName());
+            }
+            return new ExampleFluentQuery<>(example, sort, limit, resultType);
+        }
+
+        @Override
+        public FluentQuery.FetchableFluentQuery<R> project(Collection<String> properties) {
+            return this;
+        }
+
+        @Override
+        public R oneValue() {
+            List<S> matches = fetch(2);
+            if (matches.size() > 1) {
+                throw new IncorrectResultSizeDataAccessException(1, matches.size());
+            }
+            return matches.isEmpty() ? null : convert(matches.get(0));
+        }
+
+        @Override
+        public R firstValue() {
+            List<S> matches = fetch(1);
+            return matches.isEmpty() ? null : convert(matches.get(0));
+        }
+
+        @Override
+        public List<R> all() {
+            return fetch(limit).stream().map(this::convert).toList();
+        }
+
+        @Override
+        public Page<R> page(Pageable pageable) {
+            Pageable sorted = pageable.isPaged() && pageable.getSort().isUnsorted()
+                    ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort)
+                    : pageable;
+            return findAll(example, sorted).map(this::convert);
+        }
+
+        @Override
+        public Stream<R> stream() {
+            return all().stream();
+        }
+
+        @Override
+        public long count() {
+            long count = ShardedProductRepository.this.count(example);
+            return limit > 0 ? Math.min(count, limit) : count;
+        }
+
+        @Override
+        public boolean exists() {
+            return ShardedProductRepository.this.exists(example);
+        }
+
+        // limit 0 means all matches
+        private List<S> fetch(int limit) {
+            if (limit == 0) {
+                return sort.isSorted() ? findAll(example, sort) : findAll(example);
+            }
+            return pageContent(example, PageRequest.of(0, limit, sort));
+        }
+
+        private R convert(S product) {
+            return resultType.isInstance(product) ? resultType.cast(product) : PROJECTIONS.createProjection(resultType, product);
+        }
+    }
+
+    private static final class Shard {
+        private final LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+        private final HikariDataSource dataSource;
+        private final ProductRepository repository;
+        private final TransactionTemplate readTransaction;
+        private final TransactionTemplate writeTransaction;
+
+        private Shard(LocalContainerEntityManagerFactoryBean entityManagerFactoryBean, HikariDataSource dataSource) {
+            this.entityManagerFactoryBean = entityManagerFactoryBean;
+            this.dataSource = dataSource;
+            EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+            this.repository = new JpaRepositoryFactory(SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory))
+                    .getRepository(ProductRepository.class);
+            JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+            this.writeTransaction = new TransactionTemplate(transactionManager);
+            this.readTransaction = new TransactionTemplate(transactionManager);
+            this.readTransaction.setReadOnly(true);
+        }
+
+        static Shard open(int index, int shardCount, String url, String username, String password) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("product-shard-" + index);
+            dataSource.setJdbcUrl(url);
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+
+            LocalContainerEntityManagerFactoryBean factoryBean = new LocalContainerEntityManagerFactoryBean();
+            factoryBean.setPersistenceUnitName("product-shard-" + index);
+            factoryBean.setDataSource(dataSource);
+            factoryBean.setManagedTypes(PersistenceManagedTypes.of(Product.class.getName()));
+            factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+            factoryBean.setJpaPropertyMap(Map.of(
+                    "hibernate.hbm2ddl.auto", "update",
+                    "hibernate.physical_naming_strategy", CamelCaseToUnderscoresNamingStrategy.class.getName(),
+                    "hibernate.cache.use_second_level_cache", "false",
+                    "hibernate.cache.use_query_cache", "false",
+                    "jakarta.persistence.sharedCache.mode", "NONE",
+                    "hibernate.search.enabled", "false",
+                    "hibernate.jdbc.batch_size", "50",
+                    "hibernate.order_updates", "true"
+            ));
+            factoryBean.afterPropertiesSet();
+            allocateIds(dataSource, index, shardCount);
+            return new Shard(factoryBean, dataSource);
+        }
+
+        /**
+         * Makes the shard's identity column produce only ids congruent to its index, continuing after existing rows.
+         */
+        private static void allocateIds(HikariDataSource dataSource, int index, int shardCount) {
+            try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+                long maxId;
+                try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM product")) {
+                    resultSet.next();
+                    maxId = resultSet.getLong(1);
+                }
+                long next = maxId + 1;
+                next += Math.floorMod(index - next, (long) shardCount);
+                statement.execute("ALTER TABLE product ALTER COLUMN id RESTART WITH " + next + " SET INCREMENT BY " + shardCount);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not configure id allocation for product shard " + index, e);
+            }
+        }
+
+        <R> R read(Function<ProductRepository, R> operation) {
+            return readTransaction.execute(status -> operation.apply(repository));
+        }
+
+        <R> R write(Function<ProductRepository, R> operation) {
+            return writeTransaction.execute(status -> operation.apply(repository));
+        }
+
+        int maximumPoolSize() {
+            return dataSource.getMaximumPoolSize();
+        }
+
+        void close() {
+            entityManagerFactoryBean.destroy();
+            dataSource.close();
+        }
+    }
+}
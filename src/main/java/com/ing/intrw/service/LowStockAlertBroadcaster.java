@@ -0,0 +1,75 @@
+package com.ing.intrw.service;
+
+import com.ing.intrw.model.LowStockAlert;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Pushes low-stock alerts to subscribed Server-Sent Events clients. Alerts are sent from a single
+ * background thread, in publish order, so a slow subscriber never blocks the request that raised the alert.
+ */
+@Component
+public class LowStockAlertBroadcaster {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockAlertBroadcaster.class);
+    static final String EVENT_NAME = "low-stock";
+
+    @Value("${products.low-stock.stream-timeout-ms:1800000}")
+    private long streamTimeoutMs;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+    private final ExecutorService sender = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "low-stock-alerts");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SseEmitter subscribe() {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(() -> emitters.remove(emitter));
+        emitter.onError(error -> emitters.remove(emitter));
+        emitters.add(emitter);
+        log.info("Low-stock alert subscriber added, {} active", emitters.size());
+        return emitter;
+    }
+
+    public void publish(LowStockAlert alert) {
+        if (!emitters.isEmpty()) {
+            sender.execute(() -> send(alert));
+        }
+    }
+
+    public int subscriberCount() {
+        return emitters.size();
+    }
+
+    @PreDestroy
+    void stop() {
+        sender.shutdown();
+    }
+
+    private void send(LowStockAlert alert) {
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(String.valueOf(alert.getProductId()))
+                        .data(alert));
+            } catch (IOException | IllegalStateException e) {
+                log.warn("Dropping low-stock alert subscriber: {}", e.getMessage());
+                emitters.remove(emitter);
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.ing.intrw.service;
+
+import com.ing.intrw.model.LowStockAlert;
+import com.ing.intrw.model.Product;
+import com.ing.intrw.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Keeps the set of products whose stock is below their reorder threshold, ordered by stock.
+ * It is seeded once at startup and then updated from every stock change, so reading it never touches the database.
+ * Thresholds are set per category, with a default for categories that have none.
+ * <p>
+ * Changes made inside a transaction are applied after it commits, so a rolled back write never reaches
+ * the tracker or its subscribers. Changes can arrive out of commit order, so each one carries the product's
+ * entity version. Versions are only kept for tracked products: a change older than the tracked one is ignored,
+ * and a change that would start tracking a product is first checked against the committed product, which wins
+ * if it is newer or gone. This keeps memory proportional to the number of alerts. A change that commits
+ * between that check and the update of the tracker can still be applied out of order; it is corrected by the
+ * product's next stock change.
+ */
+@Component
+public class LowStockTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(LowStockTracker.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private LowStockAlertBroadcaster alertBroadcaster;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired(required = false)
+    private StockWriteBehindBuffer stockWriteBehindBuffer;
+
+    @Value("${products.low-stock.default-threshold:10}")
+    private int defaultThreshold;
+
+    // comma separated "category=threshold" pairs
+    @Value("${products.low-stock.category-thresholds:}")
+    private String categoryThresholdsProperty;
+
+    private final Map<String, Integer> categoryThresholds = new HashMap<>();
+    private final Map<Long, TrackedAlert> alertsByProduct = new ConcurrentHashMap<>();
+    private final NavigableSet<LowStockAlert> alertsByStock = new ConcurrentSkipListSet<>(
+            Comparator.comparing(LowStockAlert::getStock).thenComparing(LowStockAlert::getProductId));
+
+    @PostConstruct
+    void parseThresholds() {
+        for (String entry : categoryThresholdsProperty.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                categoryThresholds.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadFromDatabase() {
+        int maxThreshold = categoryThresholds.values().stream().reduce(defaultThreshold, Math::max);
+        List<Product> candidates = productRepository.findByStockLessThan(maxThreshold);
+        candidates.forEach(product -> apply(product, true, false));
+        log.info("Low-stock tracker initialised with {} products below threshold", alertsByStock.size());
+    }
+
+    public void onStockChanged(Product product) {
+        afterCommit(() -> track(product));
+    }
+
+    public void onProductDeleted(Long productId) {
+        afterCommit(() -> alertsByProduct.computeIfPresent(productId, (id, tracked) -> {
+            alertsByStock.remove(tracked.alert());
+            return null;
+        }));
+    }
+
+    /**
+     * @return products below their threshold, lowest stock first
+     */
+    public List<LowStockAlert> lowStock() {
+        return Collections.unmodifiableList(new ArrayList<>(alertsByStock));
+    }
+
+    public int thresholdFor(String category) {
+        return category == null ? defaultThreshold : categoryThresholds.getOrDefault(category, defaultThreshold);
+    }
+
+    private void track(Product product) {
+        if (apply(product, false, true)) {
+            return;
+        }
+        // the product is not tracked yet, so there is no version to compare the change with
+        Optional<Product> current = committedState(product.getId());
+        if (current.isEmpty()) {
+            log.debug("Ignoring stock change for deleted product with ID: {}", product.getId());
+        } else if (current.get().getVersion() > product.getVersion()) {
+            log.debug("Ignoring stale stock change for product with ID: {}", product.getId());
+            apply(current.get(), true, true);
+        } else {
+            apply(product, true, true);
+        }
+    }
+
+    /**
+     * @return false if the change would start tracking the product and {@code verified} is false
+     */
+    private boolean apply(Product product, boolean verified, boolean notify) {
+        int threshold = thresholdFor(product.getCategory());
+        boolean low = product.getStock() != null && product.getStock() < threshold;
+        LowStockAlert[] raised = new LowStockAlert[1];
+        boolean[] unverified = new boolean[1];
+        alertsByProduct.compute(product.getId(), (id, previous) -> {
+            if (previous != null && product.getVersion() < previous.version()) {
+                log.debug("Ignoring stale stock change for product with ID: {}", id);
+                return previous;
+            }
+            if (previous == null && low && !verified) {
+                unverified[0] = true;
+                return null;
+            }
+            if (previous != null) {
+                alertsByStock.remove(previous.alert());
+            }
+            if (!low) {
+                return null;
+            }
+            LowStockAlert alert = new LowStockAlert(id, product.getName(), product.getSku(), product.getCategory(),
+                    product.getStock(), threshold, previous != null ? previous.alert().getDetectedAt() : LocalDateTime.now());
+            alertsByStock.add(alert);
+            if (previous == null) {
+                raised[0] = alert;
+            }
+            return new TrackedAlert(alert, product.getVersion());
+        });
+        if (notify && raised[0] != null) {
+            log.warn("Product with ID: {} is low on stock: {} (threshold {})", product.getId(), product.getStock(), threshold);
+            alertBroadcaster.publish(raised[0]);
+        }
+        return !unverified[0];
+    }
+
+    private Optional<Product> committedState(Long productId) {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        transactionTemplate.setReadOnly(true);
+        Optional<Product> product = transactionTemplate.execute(status -> productRepository.findById(productId));
+        if (product.isPresent() && stockWriteBehindBuffer != null) {
+            // a buffered stock update is newer than the stock in the database
+            stockWriteBehindBuffer.pendingStock(productId).ifPresent(product.get()::setStock);
+        }
+        return product;
+    }
+
+    private static void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    private record TrackedAlert(LowStockAlert alert, long version) {
+    }
+}
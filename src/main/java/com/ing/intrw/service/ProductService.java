@@ -1,40 +1,83 @@
 package com.ing.intrw.service;
 
+import com.ing.intrw.exception.InvalidRequestException;
 import com.ing.intrw.exception.NoProductsFoundException;
 import com.ing.intrw.exception.ProductNotFoundException;
+import com.ing.intrw.model.LowStockAlert;
+import com.ing.intrw.model.PriceHistory;
+import com.ing.intrw.model.PriceHistoryBucket;
 import com.ing.intrw.model.Product;
+import com.ing.intrw.repository.PriceHistoryRepository;
+import com.ing.intrw.repository.PriceHistoryRepository.PricePoint;
 import com.ing.intrw.repository.ProductRepository;
+import com.ing.intrw.repository.ProductSearchRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Service
 public class ProductService {
 
     private static final Logger log = LoggerFactory.getLogger(ProductService.class);
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final Duration DEFAULT_PRICE_HISTORY_RANGE = Duration.ofDays(30);
 
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductSearchRepository productSearchRepository;
+
+    @Autowired(required = false)
+    private StockWriteBehindBuffer stockWriteBehindBuffer;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    @Autowired
+    private LowStockAlertBroadcaster lowStockAlertBroadcaster;
+
+    @Autowired
+    private PriceHistoryRepository priceHistoryRepository;
+
+    @Transactional
     public Product addProduct(Product product) {
         log.info("Saving product: {}", product);
         product.setCreatedAt(LocalDateTime.now());
         product.setUpdatedAt(LocalDateTime.now());
         Product savedProduct = productRepository.save(product);
+        recordPrice(savedProduct);
+        lowStockTracker.onStockChanged(savedProduct);
         log.info("Product saved: {}", savedProduct);
         return savedProduct;
     }
 
     public Optional<Product> findProduct(Long id) {
-        return productRepository.findById(id);
+        Optional<Product> product = productRepository.findById(id);
+        if (stockWriteBehindBuffer != null && product.isPresent()) {
+            Optional<Integer> pendingStock = stockWriteBehindBuffer.pendingStock(id);
+            if (pendingStock.isPresent()) {
+                return Optional.of(withStock(product.get(), pendingStock.get(), product.get().getUpdatedAt()));
+            }
+        }
+        return product;
     }
 
+    @Transactional
     public Product updatePrice(Long id, Double newPrice) {
         log.info("Updating price for product with ID: {}. New price: {}", id, newPrice);
         Optional<Product> productOpt = productRepository.findById(id);
@@ -43,6 +86,7 @@ public class ProductService {
             product.setPrice(newPrice);
             product.setUpdatedAt(LocalDateTime.now());
             Product updatedProduct = productRepository.save(product);
+            recordPrice(updatedProduct);
             log.info("Price updated for product with ID: {}", id);
             return updatedProduct;
         } else {
@@ -56,6 +100,7 @@ public class ProductService {
         Optional<Product> productOpt = productRepository.findById(id);
         if (productOpt.isPresent()) {
             productRepository.deleteById(id);
+            lowStockTracker.onProductDeleted(id);
             log.info("Product with ID: {} deleted successfully", id);
             return true;
         } else {
@@ -123,10 +168,18 @@ public class ProductService {
         log.info("Updating stock quantity for product with ID: {}. New quantity: {}", id, newQuantity);
         Optional<Product> productOpt = productRepository.findById(id);
         if (productOpt.isPresent()) {
+            if (stockWriteBehindBuffer != null) {
+                stockWriteBehindBuffer.enqueue(id, newQuantity);
+                Product bufferedProduct = withStock(productOpt.get(), newQuantity, LocalDateTime.now());
+                lowStockTracker.onStockChanged(bufferedProduct);
+                log.info("Stock update buffered for product with ID: {}", id);
+                return bufferedProduct;
+            }
             Product product = productOpt.get();
             product.setStock(newQuantity);
             product.setUpdatedAt(LocalDateTime.now());
             Product updatedProduct = productRepository.save(product);
+            lowStockTracker.onStockChanged(updatedProduct);
             log.info("Stock updated for product with ID: {}", id);
             return updatedProduct;
         } else {
@@ -134,4 +187,125 @@ public class ProductService {
             throw new ProductNotFoundException("Product not found with ID: " + id);
         }
     }
+
+    public List<Product> searchProducts(String query, int page, int size) {
+        log.info("Searching products for: '{}' (page {}, size {})", query, page, size);
+        if (query == null || query.isBlank()) {
+            throw new InvalidRequestException("Search query is required");
+        }
+        if (page < 0 || size < 1 || size > MAX_SEARCH_PAGE_SIZE) {
+            throw new InvalidRequestException("Page must be non-negative and size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+        }
+        if ((long) page * size > Integer.MAX_VALUE) {
+            throw new InvalidRequestException("Page is too large for size " + size);
+        }
+        List<Product> products = productSearchRepository.search(query.trim(), page, size);
+        if (products.isEmpty()) {
+            log.warn("No products found matching: {}", query);
+            throw new NoProductsFoundException("No products found matching: " + query);
+        }
+        log.info("Found {} products matching: {}", products.size(), query);
+        return products;
+    }
+
+    public List<LowStockAlert> listLowStockProducts() {
+        List<LowStockAlert> alerts = lowStockTracker.lowStock();
+        log.info("{} products are below their reorder threshold", alerts.size());
+        return alerts;
+    }
+
+    public SseEmitter subscribeToLowStockAlerts() {
+        return lowStockAlertBroadcaster.subscribe();
+    }
+
+    public List<PriceHistory> getPriceHistory(Long id, LocalDateTime from, LocalDateTime to) {
+        log.info("Fetching price history for product with ID: {} between {} and {}", id, from, to);
+        LocalDateTime end = priceHistoryEnd(to);
+        LocalDateTime start = priceHistoryStart(from, end);
+        checkPriceHistoryRequest(id, start, end);
+        List<PriceHistory> history = priceHistoryRepository.findByProductIdAndRecordedAtBetweenOrderByRecordedAtAscIdAsc(id, start, end);
+        log.info("Found {} price changes for product with ID: {}", history.size(), id);
+        return history;
+    }
+
+    /**
+     * Downsamples the price history into fixed-width buckets. Times are server-local, and buckets are aligned to
+     * multiples of the bucket width counted from 1970-01-01T00:00 local time. Buckets without a price change are
+     * left out. Rows are streamed, so memory grows with the number of buckets rather than with the number of rows.
+     */
+    @Transactional(readOnly = true)
+    public List<PriceHistoryBucket> getPriceHistoryAggregates(Long id, LocalDateTime from, LocalDateTime to, String bucket) {
+        log.info("Aggregating price history for product with ID: {} between {} and {} in {} buckets", id, from, to, bucket);
+        long bucketSeconds = parseBucket(bucket).getSeconds();
+        LocalDateTime end = priceHistoryEnd(to);
+        LocalDateTime start = priceHistoryStart(from, end);
+        checkPriceHistoryRequest(id, start, end);
+        List<PriceHistoryBucket> buckets = new ArrayList<>();
+        PriceHistoryBucket current = null;
+        long currentIndex = 0;
+        try (Stream<PricePoint> points = priceHistoryRepository.streamPricePoints(id, start, end)) {
+            for (Iterator<PricePoint> iterator = points.iterator(); iterator.hasNext(); ) {
+                PricePoint point = iterator.next();
+                long index = Math.floorDiv(point.getRecordedAt().toEpochSecond(ZoneOffset.UTC), bucketSeconds);
+                if (current == null || index != currentIndex) {
+                    current = new PriceHistoryBucket(LocalDateTime.ofEpochSecond(index * bucketSeconds, 0, ZoneOffset.UTC),
+                            point.getPrice(), point.getPrice(), point.getPrice(), 0);
+                    currentIndex = index;
+                    buckets.add(current);
+                }
+                current.setMin(Math.min(current.getMin(), point.getPrice()));
+                current.setMax(Math.max(current.getMax(), point.getPrice()));
+                current.setLast(point.getPrice());
+                current.setChanges(current.getChanges() + 1);
+            }
+        }
+        log.info("Aggregated price history for product with ID: {} into {} buckets", id, buckets.size());
+        return buckets;
+    }
+
+    private static LocalDateTime priceHistoryEnd(LocalDateTime to) {
+        return to != null ? to : LocalDateTime.now();
+    }
+
+    private static LocalDateTime priceHistoryStart(LocalDateTime from, LocalDateTime end) {
+        return from != null ? from : end.minus(DEFAULT_PRICE_HISTORY_RANGE);
+    }
+
+    private void checkPriceHistoryRequest(Long id, LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end)) {
+            throw new InvalidRequestException("'from' must not be after 'to'");
+        }
+        if (!productRepository.existsById(id)) {
+            log.error("Product not found with ID: {}", id);
+            throw new ProductNotFoundException("Product not found with ID: " + id);
+        }
+    }
+
+    private Duration parseBucket(String bucket) {
+        Duration duration;
+        try {
+            duration = Duration.parse(bucket);
+        } catch (DateTimeParseException e) {
+            throw new InvalidRequestException("Bucket must be an ISO-8601 duration such as PT1H");
+        }
+        if (duration.getSeconds() < 1) {
+            throw new InvalidRequestException("Bucket must be at least one second");
+        }
+        return duration;
+    }
+
+    private void recordPrice(Product product) {
+        // price is optional on creation; history starts with the first known price
+        if (product.getPrice() == null) {
+            return;
+        }
+        priceHistoryRepository.save(new PriceHistory(product.getId(), product.getPrice(), product.getUpdatedAt()));
+    }
+
+    private Product withStock(Product product, Integer stock, LocalDateTime updatedAt) {
+        Product copy = new Product(product.getId(), product.getName(), product.getDescription(), product.getPrice(),
+                stock, product.getCategory(), product.getSku(), product.getCreatedAt(), updatedAt);
+        copy.setVersion(product.getVersion());
+        return copy;
+    }
 }
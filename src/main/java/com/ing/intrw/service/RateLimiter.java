@@ -0,0 +1,165 @@
+package com.ing.intrw.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Admission control for the product API: a global limit on concurrently executing requests that sheds
+ * load before the password check and before requests start queueing for database connections, and a
+ * token bucket per authenticated user, sized by the user's highest role.
+ */
+@Component
+public class RateLimiter {
+
+    public enum Outcome { ALLOWED, THROTTLED, SHED }
+
+    public record Decision(Outcome outcome, long retryAfterSeconds) {
+        public boolean allowed() {
+            return outcome == Outcome.ALLOWED;
+        }
+    }
+
+    private static final Decision ALLOWED = new Decision(Outcome.ALLOWED, 0);
+    private static final List<String> ROLES = List.of("ADMIN", "MANAGER", "USER");
+    // load is shed before the request is authenticated
+    private static final String UNAUTHENTICATED = "UNAUTHENTICATED";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${products.rate-limit.enabled:true}")
+    private boolean enabled;
+
+    @Value("${products.rate-limit.max-concurrent-requests:64}")
+    private int maxConcurrentRequests;
+
+    @Value("${products.rate-limit.shed-retry-after-seconds:1}")
+    private long shedRetryAfterSeconds;
+
+    @Value("${products.rate-limit.admin.capacity:400}")
+    private long adminCapacity;
+
+    @Value("${products.rate-limit.admin.refill-per-second:200}")
+    private double adminRefillPerSecond;
+
+    @Value("${products.rate-limit.manager.capacity:200}")
+    private long managerCapacity;
+
+    @Value("${products.rate-limit.manager.refill-per-second:100}")
+    private double managerRefillPerSecond;
+
+    @Value("${products.rate-limit.user.capacity:100}")
+    private long userCapacity;
+
+    @Value("${products.rate-limit.user.refill-per-second:50}")
+    private double userRefillPerSecond;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, Counter> allowed = new HashMap<>();
+    private final Map<String, Counter> throttled = new HashMap<>();
+    private Counter shed;
+
+    @PostConstruct
+    void registerMetrics() {
+        for (String role : ROLES) {
+            allowed.put(role, counter(role, Outcome.ALLOWED));
+            throttled.put(role, counter(role, Outcome.THROTTLED));
+        }
+        shed = counter(UNAUTHENTICATED, Outcome.SHED);
+        Gauge.builder("products.rate-limit.in-flight", inFlight, AtomicInteger::get)
+                .description("Product API requests currently executing")
+                .register(meterRegistry);
+        Gauge.builder("products.rate-limit.buckets", buckets, Map::size)
+                .description("Clients with an active token bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Admits a request if fewer than the configured number of requests are executing. When the returned
+     * decision is allowed, the caller must call {@link #exit()} once the request completes.
+     */
+    public Decision tryEnter() {
+        if (!enabled) {
+            return ALLOWED;
+        }
+        if (inFlight.incrementAndGet() > maxConcurrentRequests) {
+            inFlight.decrementAndGet();
+            shed.increment();
+            return new Decision(Outcome.SHED, shedRetryAfterSeconds);
+        }
+        return ALLOWED;
+    }
+
+    public void exit() {
+        if (enabled) {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * Takes the given number of tokens from the authenticated user's bucket.
+     */
+    public Decision tryConsume(Authentication authentication, int cost) {
+        if (!enabled) {
+            return ALLOWED;
+        }
+        String role = highestRole(authentication);
+        TokenBucket bucket = buckets.computeIfAbsent(authentication.getName(), name -> newBucket(role));
+        long waitNanos = bucket.tryConsume(cost);
+        if (waitNanos > 0) {
+            throttled.get(role).increment();
+            return new Decision(Outcome.THROTTLED, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)));
+        }
+        allowed.get(role).increment();
+        return ALLOWED;
+    }
+
+    private TokenBucket newBucket(String role) {
+        switch (role) {
+            case "ADMIN":
+                return new TokenBucket(adminCapacity, adminRefillPerSecond);
+            case "MANAGER":
+                return new TokenBucket(managerCapacity, managerRefillPerSecond);
+            default:
+                return new TokenBucket(userCapacity, userRefillPerSecond);
+        }
+    }
+
+    private Counter counter(String role, Outcome outcome) {
+        return Counter.builder("products.rate-limit.requests")
+                .description("Product API admission decisions")
+                .tag("role", role)
+                .tag("outcome", outcome.name().toLowerCase())
+                .register(meterRegistry);
+    }
+
+    private static String highestRole(Authentication authentication) {
+        Set<String> authorities = authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .collect(Collectors.toSet());
+        if (authorities.contains("ROLE_ADMIN")) {
+            return "ADMIN";
+        }
+        if (authorities.contains("ROLE_MANAGER")) {
+            return "MANAGER";
+        }
+        return "USER";
+    }
+}
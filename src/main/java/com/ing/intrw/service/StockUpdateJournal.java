@@ -0,0 +1,190 @@
+package com.ing.intrw.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Append-only local journal of buffered stock updates, one "productId,stock" line per update.
+ * While a batch is being written to the database the journal is rotated to a second file, so
+ * a crash at any point leaves every acknowledged update in one of the two files.
+ * <p>
+ * Appends from different threads run concurrently. With fsync enabled, {@link #sync(long)} uses group
+ * commit: one thread forces the file to disk on behalf of every append written before it started, and
+ * the others return without forcing again.
+ */
+public class StockUpdateJournal implements Closeable {
+
+    private static final String ACTIVE_FILE = "stock-updates.journal";
+    private static final String FLUSHING_FILE = "stock-updates.journal.flushing";
+
+    private final Path active;
+    private final Path flushing;
+    private final boolean fsync;
+    // appends and syncs hold the read lock; recover, rotate and close swap or close the channel under the write lock
+    private final ReentrantReadWriteLock channelLock = new ReentrantReadWriteLock();
+    private final AtomicLong written = new AtomicLong();
+    private final Object syncMonitor = new Object();
+    private long synced;
+    private volatile FileChannel channel;
+
+    public StockUpdateJournal(Path directory, boolean fsync) throws IOException {
+        Files.createDirectories(directory);
+        this.active = directory.resolve(ACTIVE_FILE);
+        this.flushing = directory.resolve(FLUSHING_FILE);
+        this.fsync = fsync;
+    }
+
+    /**
+     * Reads updates left over by a previous run, later entries winning, and compacts them into a fresh journal.
+     */
+    public Map<Long, Integer> recover() throws IOException {
+        channelLock.writeLock().lock();
+        try {
+            return recoverAndOpen();
+        } finally {
+            channelLock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> recoverAndOpen() throws IOException {
+        Map<Long, Integer> updates = new LinkedHashMap<>();
+        readInto(flushing, updates);
+        readInto(active, updates);
+
+        Path compacted = active.resolveSibling(ACTIVE_FILE + ".tmp");
+        StringBuilder content = new StringBuilder();
+        updates.forEach((id, stock) -> content.append(id).append(',').append(stock).append('\n'));
+        Files.writeString(compacted, content, StandardCharsets.US_ASCII);
+        Files.move(compacted, active, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        Files.deleteIfExists(flushing);
+
+        open();
+        return updates;
+    }
+
+    /**
+     * Writes one update to the journal and returns its sequence number. The update is durable only
+     * after {@link #sync(long)} has returned for that sequence number.
+     */
+    public long append(long productId, int stock) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((productId + "," + stock + "\n").getBytes(StandardCharsets.US_ASCII));
+        channelLock.readLock().lock();
+        try {
+            channel.write(line);
+            return written.incrementAndGet();
+        } finally {
+            channelLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Blocks until the append with the given sequence number is on disk. Does nothing when fsync is disabled.
+     */
+    public void sync(long sequence) throws IOException {
+        if (!fsync) {
+            return;
+        }
+        channelLock.readLock().lock();
+        try {
+            synchronized (syncMonitor) {
+                if (synced >= sequence) {
+                    return;
+                }
+                long target = written.get();
+                channel.force(false);
+                synced = target;
+            }
+        } finally {
+            channelLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Moves the current journal aside before its updates are written to the database and starts a new one.
+     * If an earlier rotated journal was never discarded, the current journal is appended to it instead, so
+     * its updates are kept and still replayed first.
+     */
+    public void rotate() throws IOException {
+        channelLock.writeLock().lock();
+        try {
+            closeChannel();
+            if (Files.exists(flushing)) {
+                try (FileChannel rotated = FileChannel.open(flushing, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                    rotated.write(ByteBuffer.wrap(Files.readAllBytes(active)));
+                    if (fsync) {
+                        rotated.force(false);
+                    }
+                }
+                Files.delete(active);
+            } else {
+                Files.move(active, flushing, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+            open();
+        } finally {
+            channelLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops the rotated journal once its updates are stored in the database or re-appended to the current journal.
+     */
+    public void discardRotated() throws IOException {
+        Files.deleteIfExists(flushing);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channelLock.writeLock().lock();
+        try {
+            if (channel != null) {
+                closeChannel();
+            }
+        } finally {
+            channelLock.writeLock().unlock();
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (fsync) {
+            channel.force(false);
+            synchronized (syncMonitor) {
+                synced = written.get();
+            }
+        }
+        channel.close();
+    }
+
+    private void open() throws IOException {
+        channel = FileChannel.open(active, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static void readInto(Path file, Map<Long, Integer> updates) throws IOException {
+        if (!Files.exists(file)) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+        for (String line : lines) {
+            int separator = line.indexOf(',');
+            if (separator < 0) {
+                continue;
+            }
+            try {
+                updates.put(Long.parseLong(line.substring(0, separator)), Integer.parseInt(line.substring(separator + 1)));
+            } catch (NumberFormatException e) {
+                // a torn last line from a crash mid-write; the update was never acknowledged
+            }
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.ing.intrw.service;
+
+import com.ing.intrw.model.Product;
+import com.ing.intrw.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind buffer for stock updates. Updates are journaled locally, coalesced per product id
+ * (last write wins) and written to the database in one batched transaction per flush, either every
+ * flush interval or as soon as the buffer holds max-batch-size distinct products.
+ */
+@Component
+@ConditionalOnProperty(prefix = "products.stock.write-behind", name = "enabled", havingValue = "true")
+public class StockWriteBehindBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(StockWriteBehindBuffer.class);
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${products.stock.write-behind.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${products.stock.write-behind.max-batch-size:500}")
+    private int maxBatchSize;
+
+    @Value("${products.stock.write-behind.journal-dir:data/stock-journal}")
+    private String journalDir;
+
+    @Value("${products.stock.write-behind.journal-fsync:true}")
+    private boolean journalFsync;
+
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>();
+    private final Object[] stripes = new Object[STRIPES];
+    // enqueue holds the read lock, so a flush sees every update either in its batch or in the next journal
+    private final ReentrantReadWriteLock rotationLock = new ReentrantReadWriteLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private StockUpdateJournal journal;
+    private TransactionTemplate transactionTemplate;
+    private ScheduledExecutorService scheduler;
+
+    public StockWriteBehindBuffer() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+    }
+
+    @PostConstruct
+    void start() throws IOException {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        journal = new StockUpdateJournal(Paths.get(journalDir), journalFsync);
+        Map<Long, Integer> recovered = journal.recover();
+        if (!recovered.isEmpty()) {
+            log.warn("Recovered {} unflushed stock updates from journal", recovered.size());
+            pending.putAll(recovered);
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stock-write-behind");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        log.info("Stock write-behind enabled: flush every {} ms or {} products, journal in {}", flushIntervalMs, maxBatchSize, journalDir);
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(flushIntervalMs * 2, TimeUnit.MILLISECONDS);
+        flush();
+        journal.close();
+    }
+
+    public void enqueue(Long productId, Integer stock) {
+        rotationLock.readLock().lock();
+        try {
+            long sequence;
+            // the stripe keeps journal order and map order the same for one product; the fsync wait happens outside it
+            synchronized (stripeFor(productId)) {
+                sequence = journal.append(productId, stock);
+                pending.put(productId, stock);
+            }
+            journal.sync(sequence);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal stock update for product with ID: " + productId, e);
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+        if (pending.size() >= maxBatchSize && flushRequested.compareAndSet(false, true)) {
+            scheduler.execute(this::flushQuietly);
+        }
+    }
+
+    public Optional<Integer> pendingStock(Long productId) {
+        return Optional.ofNullable(pending.get(productId));
+    }
+
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    public synchronized void flush() {
+        flushRequested.set(false);
+        Map<Long, Integer> batch;
+        rotationLock.writeLock().lock();
+        try {
+            if (pending.isEmpty()) {
+                return;
+            }
+            // entries stay pending until the batch is committed, so reads keep seeing them
+            batch = new HashMap<>(pending);
+            journal.rotate();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rotate stock update journal", e);
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+
+        boolean stored;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Product> products = productRepository.findAllById(batch.keySet());
+                LocalDateTime now = LocalDateTime.now();
+                for (Product product : products) {
+                    product.setStock(batch.get(product.getId()));
+                    product.setUpdatedAt(now);
+                }
+                productRepository.saveAll(products);
+            });
+            stored = true;
+            log.info("Flushed {} buffered stock updates", batch.size());
+        } catch (RuntimeException e) {
+            stored = false;
+            log.error("Failed to flush {} buffered stock updates, retrying on next flush: {}", batch.size(), e.getMessage());
+        }
+
+        if (stored) {
+            // a newer update that arrived during the flush stays pending
+            batch.forEach(pending::remove);
+        }
+        // the rotated journal is the only durable copy of the batch until it is stored or journaled again
+        if (stored || rejournal(batch)) {
+            try {
+                journal.discardRotated();
+            } catch (IOException e) {
+                log.error("Could not discard flushed stock update journal: {}", e.getMessage());
+            }
+        }
+    }
+
+    private boolean rejournal(Map<Long, Integer> batch) {
+        rotationLock.readLock().lock();
+        try {
+            long sequence = 0;
+            for (Map.Entry<Long, Integer> entry : batch.entrySet()) {
+                synchronized (stripeFor(entry.getKey())) {
+                    // a newer update that arrived during the failed flush is already in the current journal
+                    if (entry.getValue().equals(pending.get(entry.getKey()))) {
+                        sequence = journal.append(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+            journal.sync(sequence);
+            return true;
+        } catch (IOException e) {
+            log.error("Could not re-journal buffered stock updates, keeping the rotated journal: {}", e.getMessage());
+            return false;
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Stock write-behind flush failed: {}", e.getMessage());
+        }
+    }
+
+    private Object stripeFor(Long productId) {
+        return stripes[Long.hashCode(productId) & (STRIPES - 1)];
+    }
+}
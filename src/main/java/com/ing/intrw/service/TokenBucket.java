@@ -0,0 +1,57 @@
+package com.ing.intrw.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Lock-free token bucket. The token count and last refill time are swapped together with a CAS,
+ * so concurrent requests from the same client never block each other.
+ */
+public class TokenBucket {
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final LongSupplier clock;
+    private final AtomicReference<State> state;
+
+    public TokenBucket(long capacity, double refillPerSecond) {
+        this(capacity, refillPerSecond, System::nanoTime);
+    }
+
+    public TokenBucket(long capacity, double refillPerSecond, LongSupplier clock) {
+        this.capacity = capacity;
+        this.tokensPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.clock = clock;
+        this.state = new AtomicReference<>(new State(capacity, clock.getAsLong()));
+    }
+
+    /**
+     * Takes cost tokens if available.
+     *
+     * @return 0 if the tokens were taken, otherwise the nanoseconds until enough tokens will be available
+     */
+    public long tryConsume(int cost) {
+        double required = Math.min(cost, capacity);
+        while (true) {
+            State current = state.get();
+            long now = clock.getAsLong();
+            double tokens = Math.min(capacity, current.tokens + (now - current.refilledAt) * tokensPerNano);
+            if (tokens < required) {
+                return (long) Math.ceil((required - tokens) / tokensPerNano);
+            }
+            if (state.compareAndSet(current, new State(tokens - required, now))) {
+                return 0;
+            }
+        }
+    }
+
+    public double availableTokens() {
+        State current = state.get();
+        return Math.min(capacity, current.tokens + (clock.getAsLong() - current.refilledAt) * tokensPerNano);
+    }
+
+    private record State(double tokens, long refilledAt) {
+    }
+}
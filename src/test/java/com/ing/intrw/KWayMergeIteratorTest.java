@@ -0,0 +1,44 @@
+package com.ing.intrw;
+
+import com.ing.intrw.repository.KWayMergeIterator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KWayMergeIteratorTest {
+
+    @Test
+    void testMergeSortedRuns() {
+        List<Integer> merged = KWayMergeIterator.merge(
+                List.of(List.of(1, 4, 9), List.of(), List.of(2, 3, 10, 11), List.of(5)),
+                Comparator.naturalOrder());
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 9, 10, 11), merged);
+    }
+
+    @Test
+    void testMergeIsStableAcrossRuns() {
+        List<String> merged = KWayMergeIterator.merge(
+                List.of(List.of("a1", "b1"), List.of("a2", "b2")),
+                Comparator.comparing(value -> value.charAt(0)));
+
+        assertEquals(List.of("a1", "a2", "b1", "b2"), merged);
+    }
+
+    @Test
+    void testIteratorIsLazyAndExhausts() {
+        Iterator<Integer> iterator = new KWayMergeIterator<>(
+                List.of(List.of(3).iterator(), List.of(1, 2).iterator()), Comparator.<Integer>naturalOrder());
+
+        assertEquals(1, iterator.next());
+        assertEquals(2, iterator.next());
+        assertEquals(3, iterator.next());
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+}
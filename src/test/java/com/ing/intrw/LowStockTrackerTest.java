@@ -0,0 +1,157 @@
+package com.ing.intrw;
+
+import com.ing.intrw.model.LowStockAlert;
+import com.ing.intrw.model.Product;
+import com.ing.intrw.repository.ProductRepository;
+import com.ing.intrw.service.LowStockAlertBroadcaster;
+import com.ing.intrw.service.LowStockTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class LowStockTrackerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private LowStockAlertBroadcaster alertBroadcaster;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private LowStockTracker lowStockTracker;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(lowStockTracker, "defaultThreshold", 10);
+        ReflectionTestUtils.setField(lowStockTracker, "categoryThresholdsProperty", "Furniture=3, Kitchen=50");
+        ReflectionTestUtils.invokeMethod(lowStockTracker, "parseThresholds");
+        when(productRepository.findById(any())).thenAnswer(invocation ->
+                Optional.of(new Product(invocation.getArgument(0), "Product", "Description", 10.0, 5, "Electronics", "P1")));
+    }
+
+    @Test
+    void testThresholdsPerCategory() {
+        assertEquals(3, lowStockTracker.thresholdFor("Furniture"));
+        assertEquals(50, lowStockTracker.thresholdFor("Kitchen"));
+        assertEquals(10, lowStockTracker.thresholdFor("Electronics"));
+        assertEquals(10, lowStockTracker.thresholdFor(null));
+    }
+
+    @Test
+    void testLoadFromDatabaseUsesCategoryThresholds() {
+        when(productRepository.findByStockLessThan(50)).thenReturn(List.of(
+                new Product(1L, "Chair", "Description", 10.0, 5, "Furniture", "F1"),
+                new Product(2L, "Mug", "Description", 5.0, 40, "Kitchen", "K1"),
+                new Product(3L, "Phone", "Description", 300.0, 2, "Electronics", "E1")));
+
+        lowStockTracker.loadFromDatabase();
+
+        List<LowStockAlert> alerts = lowStockTracker.lowStock();
+        assertEquals(List.of(3L, 2L), alerts.stream().map(LowStockAlert::getProductId).toList());
+        verifyNoInteractions(alertBroadcaster);
+    }
+
+    @Test
+    void testStockChangesAreOrderedByStock() {
+        lowStockTracker.onStockChanged(new Product(1L, "Phone", "Description", 300.0, 7, "Electronics", "E1"));
+        lowStockTracker.onStockChanged(new Product(2L, "Laptop", "Description", 900.0, 3, "Electronics", "E2"));
+        lowStockTracker.onStockChanged(new Product(3L, "Tablet", "Description", 400.0, 50, "Electronics", "E3"));
+        lowStockTracker.onStockChanged(new Product(1L, "Phone", "Description", 300.0, 1, "Electronics", "E1"));
+
+        List<LowStockAlert> alerts = lowStockTracker.lowStock();
+
+        assertEquals(List.of(1L, 2L), alerts.stream().map(LowStockAlert::getProductId).toList());
+        assertEquals(1, alerts.get(0).getStock());
+        assertEquals(10, alerts.get(0).getThreshold());
+    }
+
+    @Test
+    void testAlertPublishedOnlyWhenCrossingThreshold() {
+        lowStockTracker.onStockChanged(new Product(1L, "Phone", "Description", 300.0, 20, "Electronics", "E1"));
+        lowStockTracker.onStockChanged(new Product(1L, "Phone", "Description", 300.0, 5, "Electronics", "E1"));
+        lowStockTracker.onStockChanged(new Product(1L, "Phone", "Description", 300.0, 4, "Electronics", "E1"));
+
+        verify(alertBroadcaster, times(1)).publish(any(LowStockAlert.class));
+    }
+
+    @Test
+    void testRestockAndDeleteRemoveProducts() {
+        lowStockTracker.onStockChanged(new Product(1L, "Phone", "Description", 300.0, 5, "Electronics", "E1"));
+        lowStockTracker.onStockChanged(new Product(2L, "Laptop", "Description", 900.0, 3, "Electronics", "E2"));
+
+        lowStockTracker.onStockChanged(new Product(1L, "Phone", "Description", 300.0, 100, "Electronics", "E1"));
+        lowStockTracker.onProductDeleted(2L);
+
+        assertTrue(lowStockTracker.lowStock().isEmpty());
+    }
+
+    @Test
+    void testStaleStockChangeIsIgnored() {
+        lowStockTracker.onStockChanged(versioned(new Product(1L, "Phone", "Description", 300.0, 2, "Electronics", "E1"), 2));
+        lowStockTracker.onStockChanged(versioned(new Product(1L, "Phone", "Description", 300.0, 50, "Electronics", "E1"), 1));
+
+        assertEquals(2, lowStockTracker.lowStock().get(0).getStock());
+    }
+
+    @Test
+    void testStaleChangeForUntrackedProductUsesCommittedState() {
+        Product restocked = versioned(new Product(1L, "Phone", "Description", 300.0, 50, "Electronics", "E1"), 2);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(restocked));
+
+        lowStockTracker.onStockChanged(restocked);
+        lowStockTracker.onStockChanged(versioned(new Product(1L, "Phone", "Description", 300.0, 2, "Electronics", "E1"), 1));
+
+        assertTrue(lowStockTracker.lowStock().isEmpty());
+        verifyNoInteractions(alertBroadcaster);
+    }
+
+    @Test
+    void testChangeAfterDeleteIsIgnored() {
+        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+
+        lowStockTracker.onProductDeleted(1L);
+        lowStockTracker.onStockChanged(new Product(1L, "Phone", "Description", 300.0, 2, "Electronics", "E1"));
+
+        assertTrue(lowStockTracker.lowStock().isEmpty());
+    }
+
+    @Test
+    void testChangesInsideTransactionApplyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            lowStockTracker.onStockChanged(new Product(1L, "Phone", "Description", 300.0, 2, "Electronics", "E1"));
+
+            assertTrue(lowStockTracker.lowStock().isEmpty());
+            verifyNoInteractions(alertBroadcaster);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1, lowStockTracker.lowStock().size());
+        verify(alertBroadcaster, times(1)).publish(any(LowStockAlert.class));
+    }
+
+    private static Product versioned(Product product, long version) {
+        product.setVersion(version);
+        return product;
+    }
+}
@@ -0,0 +1,93 @@
+package com.ing.intrw;
+
+import com.ing.intrw.model.Product;
+import com.ing.intrw.repository.ProductRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductCacheTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testFindByIdServedFromSecondLevelCache() {
+        Product saved = productRepository.save(new Product("Product A", "Description", 10.0, 100, "Electronics", "A123"));
+
+        productRepository.findById(saved.getId());
+        long loadsAfterFirstRead = statistics.getEntityLoadCount();
+        productRepository.findById(saved.getId());
+        productRepository.findById(saved.getId());
+
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertEquals(loadsAfterFirstRead, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testUpdateKeepsSecondLevelCacheConsistent() {
+        Product saved = productRepository.save(new Product("Product A", "Description", 10.0, 100, "Electronics", "A123"));
+        Product loaded = productRepository.findById(saved.getId()).orElseThrow();
+        loaded.setPrice(25.0);
+        productRepository.save(loaded);
+        long loadsAfterUpdate = statistics.getEntityLoadCount();
+
+        Product reloaded = productRepository.findById(saved.getId()).orElseThrow();
+
+        assertEquals(25.0, reloaded.getPrice());
+        assertEquals(loadsAfterUpdate, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void testFinderQueriesServedFromQueryCache() {
+        productRepository.save(new Product("Product A", "Description", 10.0, 100, "Electronics", "A123"));
+
+        productRepository.findByCategory("Electronics");
+        List<Product> cached = productRepository.findByCategory("Electronics");
+
+        assertEquals(1, cached.size());
+        assertEquals(1, statistics.getQueryCacheMissCount());
+        assertEquals(1, statistics.getQueryCacheHitCount());
+
+        productRepository.findByPriceBetween(5.0, 20.0);
+        productRepository.findByPriceBetween(5.0, 20.0);
+
+        assertEquals(2, statistics.getQueryCacheHitCount());
+    }
+
+    @Test
+    void testQueryCacheInvalidatedOnInsert() {
+        productRepository.save(new Product("Product A", "Description", 10.0, 100, "Electronics", "A123"));
+        assertEquals(1, productRepository.findByCategory("Electronics").size());
+
+        productRepository.save(new Product("Product B", "Description", 20.0, 50, "Electronics", "B456"));
+
+        assertEquals(2, productRepository.findByCategory("Electronics").size());
+    }
+}
@@ -1,6 +1,11 @@
 package com.ing.intrw;
 
 import com.ing.intrw.controller.ProductController;
+import com.ing.intrw.exception.GlobalExceptionHandler;
+import com.ing.intrw.exception.NoProductsFoundException;
+import com.ing.intrw.model.LowStockAlert;
+import com.ing.intrw.model.PriceHistory;
+import com.ing.intrw.model.PriceHistoryBucket;
 import com.ing.intrw.model.Product;
 import com.ing.intrw.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
@@ -9,15 +14,21 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.isNull;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -140,4 +151,100 @@ class ProductControllerTest {
                 .andExpect(jsonPath("$.stock").value(30));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testSearchProducts() throws Exception {
+        Product product = new Product("Product A", "Description", 10.0, 100, "Electronics", "A123");
+        when(productService.searchProducts("prod", 1, 5)).thenReturn(Arrays.asList(product));
+
+        mockMvc.perform(get("/api/products/text-search?q=prod&page=1&size=5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Product A"));
+    }
+
+    @Test
+    void testListAllItemsAsCbor() throws Exception {
+        Product product = new Product(1L, "Product A", "Description", 10.0, 100, "Electronics", "A123");
+        when(productService.listAllItems()).thenReturn(Arrays.asList(product));
+
+        mockMvc.perform(get("/api/products/").accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+    }
+
+    @Test
+    void testSortItemsByNameAsSmile() throws Exception {
+        Product product = new Product(1L, "Product A", "Description", 10.0, 100, "Electronics", "A123");
+        when(productService.sortItemsByName()).thenReturn(Arrays.asList(product));
+
+        mockMvc.perform(get("/api/products/sort/name").accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"));
+    }
+
+    @Test
+    void testListLowStockProducts() throws Exception {
+        LowStockAlert alert = new LowStockAlert(1L, "Product A", "A123", "Electronics", 2, 10, LocalDateTime.now());
+        when(productService.listLowStockProducts()).thenReturn(Arrays.asList(alert));
+
+        mockMvc.perform(get("/api/products/low-stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value(1))
+                .andExpect(jsonPath("$[0].stock").value(2))
+                .andExpect(jsonPath("$[0].threshold").value(10));
+    }
+
+    @Test
+    void testGetPriceHistory() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2024, 12, 1, 0, 0);
+        when(productService.getPriceHistory(eq(1L), eq(from), isNull()))
+                .thenReturn(List.of(new PriceHistory(1L, 1L, 10.0, LocalDateTime.of(2024, 12, 10, 12, 0))));
+
+        mockMvc.perform(get("/api/products/{id}/price-history", 1).param("from", "2024-12-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].productId").value(1))
+                .andExpect(jsonPath("$[0].price").value(10.0));
+    }
+
+    @Test
+    void testGetPriceHistoryAggregates() throws Exception {
+        when(productService.getPriceHistoryAggregates(eq(1L), isNull(), isNull(), eq("PT1H")))
+                .thenReturn(List.of(new PriceHistoryBucket(LocalDateTime.of(2024, 12, 10, 12, 0), 10.0, 15.0, 12.0, 3)));
+
+        mockMvc.perform(get("/api/products/{id}/price-history/aggregate", 1))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].min").value(10.0))
+                .andExpect(jsonPath("$[0].max").value(15.0))
+                .andExpect(jsonPath("$[0].last").value(12.0))
+                .andExpect(jsonPath("$[0].changes").value(3));
+    }
+
+    @Test
+    void testErrorResponseToCborRequestIsPlainText() throws Exception {
+        MockMvc mockMvcWithAdvice = MockMvcBuilders.standaloneSetup(productController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(productService.filterItemsByCategory("none"))
+                .thenThrow(new NoProductsFoundException("No products found in category: none"));
+
+        mockMvcWithAdvice.perform(get("/api/products/category/{category}", "none").accept("application/cbor"))
+                .andExpect(status().isNotFound())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"))
+                .andExpect(content().string("No products found in category: none"));
+    }
+
+    @Test
+    void testConcurrentUpdateReturnsConflict() throws Exception {
+        MockMvc mockMvcWithAdvice = MockMvcBuilders.standaloneSetup(productController)
+                .setControllerAdvice(new GlobalExceptionHandler())
+                .build();
+        when(productService.updatePrice(1L, 150.0))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Product.class, 1L));
+
+        mockMvcWithAdvice.perform(put("/api/products/{id}/price", 1)
+                        .contentType("application/json")
+                        .content("{\"price\":150.0}"))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentTypeCompatibleWith("text/plain"));
+    }
+
+}
@@ -0,0 +1,313 @@
+package com.ing.intrw;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.intrw.model.Product;
+import com.ing.intrw.service.LowStockTracker;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.search.mapper.orm.Search;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end load test: starts the application on a random port, seeds a catalog and runs a weighted
+ * read/write mix against every ProductController endpoint as the users defined in SecurityConfig.
+ * The build fails when latency, throughput or error rate miss their SLOs.
+ * <p>
+ * Excluded from the default build; run with {@code ./mvnw test -P load-test}. Catalog size, duration,
+ * concurrency and SLOs are read from the loadtest.* system properties set by that profile.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "products.rate-limit.admin.capacity=1000000000",
+        "products.rate-limit.admin.refill-per-second=1000000000",
+        "products.rate-limit.manager.capacity=1000000000",
+        "products.rate-limit.manager.refill-per-second=1000000000",
+        "products.rate-limit.user.capacity=1000000000",
+        "products.rate-limit.user.refill-per-second=1000000000",
+        "products.rate-limit.max-concurrent-requests=1000",
+        // every request sends Basic credentials; the minimum BCrypt cost keeps the password check out of the results
+        "products.security.bcrypt-strength=4",
+        "spring.jpa.properties.hibernate.search.backend.directory.type=local-heap",
+        "logging.level.com.ing.intrw=WARN"
+})
+class ProductLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductLoadTest.class);
+    private static final String[] CATEGORIES = {"Electronics", "Furniture", "Kitchen", "Garden", "Toys", "Books", "Sports", "Beauty"};
+    private static final String[] WORDS = {"wireless", "ergonomic", "compact", "premium", "portable", "classic", "smart", "durable"};
+    private static final int SEED_BATCH_SIZE = 1000;
+
+    private static final int CATALOG_SIZE = Integer.getInteger("loadtest.catalog-size", 10_000);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 8);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 5);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.duration-seconds", 30);
+    private static final boolean INDEX_CATALOG = Boolean.parseBoolean(System.getProperty("loadtest.index-catalog", "true"));
+    private static final double SLO_P50_MS = Double.parseDouble(System.getProperty("loadtest.slo.p50-ms", "120"));
+    private static final double SLO_P99_MS = Double.parseDouble(System.getProperty("loadtest.slo.p99-ms", "2000"));
+    private static final double SLO_MIN_THROUGHPUT = Double.parseDouble(System.getProperty("loadtest.slo.min-throughput", "40"));
+    private static final double SLO_MAX_ERROR_RATE = Double.parseDouble(System.getProperty("loadtest.slo.max-error-rate", "0.01"));
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private LowStockTracker lowStockTracker;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ConcurrentLinkedQueue<Long> createdIds = new ConcurrentLinkedQueue<>();
+    private long maxSeededId;
+
+    private enum Operation {
+        FIND_BY_ID(25, "user"),
+        FILTER_BY_CATEGORY(12, "user"),
+        FILTER_BY_PRICE(10, "user"),
+        TEXT_SEARCH(10, "user"),
+        LOW_STOCK(5, "manager"),
+        PRICE_HISTORY(3, "user"),
+        PRICE_HISTORY_AGGREGATE(2, "user"),
+        SORT_BY_NAME(1, "user"),
+        SORT_BY_STOCK(1, "manager"),
+        LIST_ALL(1, "admin"),
+        UPDATE_STOCK(15, "manager"),
+        UPDATE_PRICE(8, "manager"),
+        ADD_PRODUCT(5, "manager"),
+        DELETE_PRODUCT(2, "admin");
+
+        final int weight;
+        final String user;
+
+        Operation(int weight, String user) {
+            this.weight = weight;
+            this.user = user;
+        }
+    }
+
+    private record Sample(Operation operation, long latencyNanos, boolean error) {
+    }
+
+    @BeforeEach
+    void seedCatalog() throws InterruptedException {
+        long start = System.nanoTime();
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        for (int offset = 0; offset < CATALOG_SIZE; offset += SEED_BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>(SEED_BATCH_SIZE);
+            for (int i = offset; i < Math.min(offset + SEED_BATCH_SIZE, CATALOG_SIZE); i++) {
+                String word = WORDS[random.nextInt(WORDS.length)];
+                String category = CATEGORIES[i % CATEGORIES.length];
+                rows.add(new Object[]{"Product " + word + " " + i, "A " + word + " item from " + category,
+                        1.0 + random.nextInt(100_000) / 100.0, random.nextInt(500), category, "SKU-" + i,
+                        Timestamp.valueOf(now), Timestamp.valueOf(now)});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO product (name, description, price, stock, category, sku, created_at, updated_at, version) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)", rows);
+        }
+        maxSeededId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM product", Long.class);
+        lowStockTracker.loadFromDatabase();
+        if (INDEX_CATALOG) {
+            Search.mapping(entityManagerFactory).scope(Product.class).massIndexer().startAndWait();
+        }
+        log.warn("Seeded {} products in {} ms", CATALOG_SIZE, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    @Test
+    void mixedWorkloadMeetsSlo() throws Exception {
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(DURATION_SECONDS);
+
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        List<Future<List<Sample>>> results = new ArrayList<>();
+        for (int worker = 0; worker < CONCURRENCY; worker++) {
+            long seed = 1000L + worker;
+            results.add(workers.submit(() -> drive(new Random(seed), warmupEnd, end)));
+        }
+        List<Sample> samples = new ArrayList<>();
+        for (Future<List<Sample>> result : results) {
+            samples.addAll(result.get());
+        }
+        workers.shutdown();
+
+        long[] latencies = samples.stream().mapToLong(Sample::latencyNanos).sorted().toArray();
+        long errors = samples.stream().filter(Sample::error).count();
+        double p50 = percentileMillis(latencies, 50);
+        double p99 = percentileMillis(latencies, 99);
+        double throughput = samples.size() / (double) DURATION_SECONDS;
+        double errorRate = samples.isEmpty() ? 1.0 : errors / (double) samples.size();
+
+        report(samples, p50, p99, throughput, errorRate);
+
+        assertAll(
+                () -> assertTrue(p50 <= SLO_P50_MS, String.format("p50 %.1f ms exceeds SLO %.1f ms", p50, SLO_P50_MS)),
+                () -> assertTrue(p99 <= SLO_P99_MS, String.format("p99 %.1f ms exceeds SLO %.1f ms", p99, SLO_P99_MS)),
+                () -> assertTrue(throughput >= SLO_MIN_THROUGHPUT, String.format("throughput %.1f req/s below SLO %.1f req/s", throughput, SLO_MIN_THROUGHPUT)),
+                () -> assertTrue(errorRate <= SLO_MAX_ERROR_RATE, String.format("error rate %.4f exceeds SLO %.4f", errorRate, SLO_MAX_ERROR_RATE))
+        );
+    }
+
+    private List<Sample> drive(Random random, long warmupEnd, long end) {
+        int totalWeight = Arrays.stream(Operation.values()).mapToInt(operation -> operation.weight).sum();
+        List<Sample> samples = new ArrayList<>();
+        long now;
+        while ((now = System.nanoTime()) < end) {
+            Operation operation = pick(random.nextInt(totalWeight));
+            // only products created by the run are deleted, so the seeded catalog keeps its size
+            Long createdId = operation == Operation.DELETE_PRODUCT ? createdIds.poll() : null;
+            if (operation == Operation.DELETE_PRODUCT && createdId == null) {
+                operation = Operation.ADD_PRODUCT;
+            }
+            boolean error;
+            try {
+                int status;
+                if (operation == Operation.ADD_PRODUCT) {
+                    HttpResponse<String> response = httpClient.send(request(operation, random, null), HttpResponse.BodyHandlers.ofString());
+                    status = response.statusCode();
+                    if (status == 201) {
+                        createdIds.offer(objectMapper.readTree(response.body()).get("id").asLong());
+                    }
+                } else {
+                    status = httpClient.send(request(operation, random, createdId), HttpResponse.BodyHandlers.discarding()).statusCode();
+                }
+                // 404 is the API's answer for filters and searches with no match
+                error = status >= 300 && status != 404;
+            } catch (Exception e) {
+                error = true;
+            }
+            long latency = System.nanoTime() - now;
+            if (now >= warmupEnd) {
+                samples.add(new Sample(operation, latency, error));
+            }
+        }
+        return samples;
+    }
+
+    private HttpRequest request(Operation operation, Random random, Long createdId) {
+        String category = CATEGORIES[random.nextInt(CATEGORIES.length)];
+        long productId = 1 + (long) (random.nextDouble() * maxSeededId);
+        double minPrice = random.nextInt(1000);
+        switch (operation) {
+            case FIND_BY_ID:
+                return get(operation, "/api/products/" + productId);
+            case FILTER_BY_CATEGORY:
+                return get(operation, "/api/products/category/" + category);
+            case FILTER_BY_PRICE:
+                return get(operation, "/api/products/price?minPrice=" + minPrice + "&maxPrice=" + (minPrice + 1));
+            case TEXT_SEARCH:
+                return get(operation, "/api/products/text-search?q=" + WORDS[random.nextInt(WORDS.length)] + "&size=20");
+            case LOW_STOCK:
+                return get(operation, "/api/products/low-stock");
+            case PRICE_HISTORY:
+                return get(operation, "/api/products/" + productId + "/price-history");
+            case PRICE_HISTORY_AGGREGATE:
+                return get(operation, "/api/products/" + productId + "/price-history/aggregate?bucket=PT1M");
+            case SORT_BY_NAME:
+                return get(operation, "/api/products/sort/name");
+            case SORT_BY_STOCK:
+                return get(operation, "/api/products/sort/stock");
+            case LIST_ALL:
+                return get(operation, "/api/products/");
+            case UPDATE_STOCK:
+                return put(operation, "/api/products/" + productId + "/stock", "{\"stock\":" + random.nextInt(500) + "}");
+            case UPDATE_PRICE:
+                return put(operation, "/api/products/" + productId + "/price", "{\"price\":" + (1 + random.nextInt(100_000) / 100.0) + "}");
+            case ADD_PRODUCT:
+                return builder(operation, "/api/products")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"Load test product\",\"description\":\"created under load\","
+                                + "\"price\":9.99,\"stock\":100,\"category\":\"" + category + "\",\"sku\":\"LOAD-" + random.nextInt() + "\"}"))
+                        .build();
+            default:
+                return builder(operation, "/api/products/" + createdId).DELETE().build();
+        }
+    }
+
+    private HttpRequest get(Operation operation, String path) {
+        return builder(operation, path).header("Accept-Encoding", "gzip").GET().build();
+    }
+
+    private HttpRequest put(Operation operation, String path, String body) {
+        return builder(operation, path).PUT(HttpRequest.BodyPublishers.ofString(body)).build();
+    }
+
+    private HttpRequest.Builder builder(Operation operation, String path) {
+        String credentials = operation.user + ":" + operation.user + "123";
+        return HttpRequest.newBuilder(uri(path))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                .header("Content-Type", "application/json");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static Operation pick(int ticket) {
+        for (Operation operation : Operation.values()) {
+            ticket -= operation.weight;
+            if (ticket < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Operation weights do not cover ticket");
+    }
+
+    private static double percentileMillis(long[] sortedLatencies, double percentile) {
+        if (sortedLatencies.length == 0) {
+            return Double.MAX_VALUE;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sortedLatencies.length) - 1;
+        return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private void report(List<Sample> samples, double p50, double p99, double throughput, double errorRate) {
+        Map<Operation, List<Sample>> byOperation = new TreeMap<>();
+        samples.forEach(sample -> byOperation.computeIfAbsent(sample.operation(), operation -> new ArrayList<>()).add(sample));
+
+        StringBuilder table = new StringBuilder(String.format("%n%-24s %8s %10s %10s %10s %8s%n", "operation", "count", "p50 ms", "p99 ms", "max ms", "errors"));
+        byOperation.forEach((operation, operationSamples) -> {
+            long[] latencies = operationSamples.stream().mapToLong(Sample::latencyNanos).sorted().toArray();
+            table.append(String.format("%-24s %8d %10.1f %10.1f %10.1f %8d%n", operation, latencies.length,
+                    percentileMillis(latencies, 50), percentileMillis(latencies, 99), latencies[latencies.length - 1] / 1_000_000.0,
+                    operationSamples.stream().filter(Sample::error).count()));
+        });
+        table.append(String.format("%-24s %8d %10.1f %10.1f %10s %8.2f%%%n", "TOTAL", samples.size(), p50, p99, "", errorRate * 100));
+        table.append(String.format("catalog %d products, %d workers, %d s: %.1f req/s (SLO p50 <= %.0f ms, p99 <= %.0f ms, >= %.0f req/s, errors <= %.2f%%)",
+                CATALOG_SIZE, CONCURRENCY, DURATION_SECONDS, throughput, SLO_P50_MS, SLO_P99_MS, SLO_MIN_THROUGHPUT, SLO_MAX_ERROR_RATE * 100));
+        log.warn("Load test results:{}", table);
+    }
+}
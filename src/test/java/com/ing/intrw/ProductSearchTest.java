@@ -0,0 +1,103 @@
+package com.ing.intrw;
+
+import com.ing.intrw.exception.NoProductsFoundException;
+import com.ing.intrw.model.Product;
+import com.ing.intrw.repository.ProductRepository;
+import com.ing.intrw.repository.ProductSearchRepository;
+import com.ing.intrw.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class ProductSearchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchRepository productSearchRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        productService.addProduct(new Product("Gaming Laptop", "Fast laptop with a dedicated graphics card", 1500.0, 10, "Electronics", "LAP-1"));
+        productService.addProduct(new Product("Laptop Bag", "Padded bag", 40.0, 50, "Accessories", "BAG-1"));
+        productService.addProduct(new Product("Office Chair", "Ergonomic chair, fits under any laptop desk", 200.0, 20, "Furniture", "CHR-1"));
+        productService.addProduct(new Product("Coffee Mug", "Ceramic mug", 8.0, 300, "Kitchen", "MUG-1"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testSearchRanksNameMatchesFirst() {
+        List<Product> products = productService.searchProducts("laptop", 0, 10);
+
+        assertEquals(3, products.size());
+        assertNotEquals("Office Chair", products.get(0).getName());
+        assertEquals("Office Chair", products.get(2).getName());
+    }
+
+    @Test
+    void testSearchMatchesPrefix() {
+        List<Product> products = productService.searchProducts("cof", 0, 10);
+
+        assertEquals(1, products.size());
+        assertEquals("Coffee Mug", products.get(0).getName());
+    }
+
+    @Test
+    void testSearchMatchesMisspelledWords() {
+        List<Product> products = productService.searchProducts("ergonomc", 0, 10);
+
+        assertEquals(1, products.size());
+        assertEquals("Office Chair", products.get(0).getName());
+    }
+
+    @Test
+    void testSearchPagination() {
+        List<Product> firstPage = productService.searchProducts("laptop", 0, 2);
+        List<Product> secondPage = productService.searchProducts("laptop", 1, 2);
+
+        assertEquals(2, firstPage.size());
+        assertEquals(1, secondPage.size());
+        assertFalse(firstPage.contains(secondPage.get(0)));
+    }
+
+    @Test
+    void testIndexFollowsDeletes() {
+        Product mug = productService.searchProducts("mug", 0, 10).get(0);
+
+        productService.deleteItemById(mug.getId());
+
+        assertThrows(NoProductsFoundException.class, () -> productService.searchProducts("mug", 0, 10));
+    }
+
+    @Test
+    void testStartupRebuildsIndexThatIsOutOfSync() throws Exception {
+        jdbcTemplate.update("INSERT INTO product (name, description, price, stock, category, sku, version) VALUES (?, ?, ?, ?, ?, ?, 0)",
+                "Garden Hose", "Flexible hose", 25.0, 40, "Garden", "HOS-1");
+        assertThrows(NoProductsFoundException.class, () -> productService.searchProducts("hose", 0, 10));
+
+        productSearchRepository.reindexOnStartup();
+
+        List<Product> products = productService.searchProducts("hose", 0, 10);
+        assertEquals(1, products.size());
+        assertEquals("Garden Hose", products.get(0).getName());
+    }
+}
@@ -0,0 +1,120 @@
+package com.ing.intrw;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ing.intrw.model.Product;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares JSON, CBOR and Smile encoding of a large product list, using the application's own mappers.
+ * Results are logged; the assertions only guard the size relationship, not timings.
+ */
+@SpringBootTest
+class ProductSerializationBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSerializationBenchmarkTest.class);
+    private static final int PRODUCTS = 20_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int MEASURED_ROUNDS = 10;
+
+    @Autowired
+    private ObjectMapper jsonMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Test
+    void benchmarkBinaryFormatsAgainstJson() throws IOException {
+        List<Product> products = catalog();
+        ObjectMapper cborMapper = cborConverter.getObjectMapper();
+        ObjectMapper smileMapper = smileConverter.getObjectMapper();
+
+        Result json = measure("json", jsonMapper, products);
+        Result cbor = measure("cbor", cborMapper, products);
+        Result smile = measure("smile", smileMapper, products);
+
+        for (Result result : List.of(json, cbor, smile)) {
+            log.info("{} products: {}", PRODUCTS, result);
+        }
+        log.info("CBOR payload is {}% of JSON ({}% gzipped), Smile payload is {}% of JSON ({}% gzipped)",
+                100 * cbor.bytes / json.bytes, 100 * cbor.gzippedBytes / json.gzippedBytes,
+                100 * smile.bytes / json.bytes, 100 * smile.gzippedBytes / json.gzippedBytes);
+
+        assertTrue(cbor.bytes < json.bytes);
+        assertTrue(smile.bytes < cbor.bytes);
+        assertTrue(json.gzippedBytes < json.bytes / 4);
+
+        for (ObjectMapper mapper : List.of(cborMapper, smileMapper)) {
+            JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, Product.class);
+            List<Product> decoded = mapper.readValue(mapper.writeValueAsBytes(products), listType);
+            assertEquals(products, decoded);
+        }
+    }
+
+    private static Result measure(String format, ObjectMapper mapper, List<Product> products) throws IOException {
+        byte[] encoded = null;
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            encoded = mapper.writeValueAsBytes(products);
+        }
+        long encodeNanos = 0;
+        long decodeNanos = 0;
+        JavaType listType = mapper.getTypeFactory().constructCollectionType(List.class, Product.class);
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            encoded = mapper.writeValueAsBytes(products);
+            encodeNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            mapper.readValue(encoded, listType);
+            decodeNanos += System.nanoTime() - start;
+        }
+        return new Result(format, encoded.length, gzip(encoded).length,
+                encodeNanos / MEASURED_ROUNDS / 1_000_000.0, decodeNanos / MEASURED_ROUNDS / 1_000_000.0);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Product> catalog() {
+        String[] categories = {"Electronics", "Furniture", "Kitchen", "Garden", "Toys"};
+        LocalDateTime created = LocalDateTime.of(2024, 12, 10, 12, 0);
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            products.add(new Product((long) i, "Product " + i, "Description of product number " + i,
+                    10.0 + (i % 1000) / 4.0, i % 500, categories[i % categories.length], "SKU-" + i,
+                    created.plusMinutes(i), created.plusMinutes(i).plusSeconds(30)));
+        }
+        return products;
+    }
+
+    private record Result(String format, long bytes, long gzippedBytes, double encodeMillis, double decodeMillis) {
+        @Override
+        public String toString() {
+            return String.format("%s: %,d bytes (%,d gzipped), encode %.2f ms, decode %.2f ms",
+                    format, bytes, gzippedBytes, encodeMillis, decodeMillis);
+        }
+    }
+}
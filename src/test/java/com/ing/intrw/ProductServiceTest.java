@@ -1,8 +1,17 @@
 package com.ing.intrw;
 
+import com.ing.intrw.exception.InvalidRequestException;
+import com.ing.intrw.exception.NoProductsFoundException;
 import com.ing.intrw.exception.ProductNotFoundException;
+import com.ing.intrw.model.LowStockAlert;
+import com.ing.intrw.model.PriceHistory;
+import com.ing.intrw.model.PriceHistoryBucket;
 import com.ing.intrw.model.Product;
+import com.ing.intrw.repository.PriceHistoryRepository;
 import com.ing.intrw.repository.ProductRepository;
+import com.ing.intrw.repository.ProductSearchRepository;
+import com.ing.intrw.service.LowStockAlertBroadcaster;
+import com.ing.intrw.service.LowStockTracker;
 import com.ing.intrw.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +23,7 @@ import org.springframework.data.domain.Sort;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -24,6 +34,18 @@ public class ProductServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private ProductSearchRepository productSearchRepository;
+
+    @Mock
+    private LowStockTracker lowStockTracker;
+
+    @Mock
+    private LowStockAlertBroadcaster lowStockAlertBroadcaster;
+
+    @Mock
+    private PriceHistoryRepository priceHistoryRepository;
+
     @InjectMocks
     private ProductService productService;
 
@@ -172,4 +194,165 @@ public class ProductServiceTest {
         assertEquals(150, updatedProduct.getStock());
         verify(productRepository, times(1)).save(any(Product.class));
     }
+
+    @Test
+    void testSearchProducts() {
+        Product product = new Product(1L, "Product A", "Description", 10.0, 100, "Electronics", "A123", LocalDateTime.now(), LocalDateTime.now());
+
+        when(productSearchRepository.search("product", 0, 20)).thenReturn(List.of(product));
+
+        List<Product> products = productService.searchProducts(" product ", 0, 20);
+
+        assertEquals(1, products.size());
+        assertEquals("Product A", products.get(0).getName());
+    }
+
+    @Test
+    void testSearchProductsNoMatches() {
+        when(productSearchRepository.search("missing", 0, 20)).thenReturn(List.of());
+
+        assertThrows(NoProductsFoundException.class, () -> productService.searchProducts("missing", 0, 20));
+    }
+
+    @Test
+    void testSearchProductsInvalidRequest() {
+        assertThrows(InvalidRequestException.class, () -> productService.searchProducts(" ", 0, 20));
+        assertThrows(InvalidRequestException.class, () -> productService.searchProducts("product", -1, 20));
+        assertThrows(InvalidRequestException.class, () -> productService.searchProducts("product", 0, 1000));
+        assertThrows(InvalidRequestException.class, () -> productService.searchProducts("product", 300_000_000, 100));
+        verifyNoInteractions(productSearchRepository);
+    }
+
+    @Test
+    void testStockChangesReachLowStockTracker() {
+        Product product = new Product(1L, "Product A", "Description", 10.0, 100, "Electronics", "A123", LocalDateTime.now(), LocalDateTime.now());
+
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        productService.addProduct(product);
+        productService.updateStockQuantity(1L, 2);
+        productService.deleteItemById(1L);
+
+        verify(lowStockTracker, times(2)).onStockChanged(product);
+        verify(lowStockTracker, times(1)).onProductDeleted(1L);
+    }
+
+    @Test
+    void testListLowStockProducts() {
+        LowStockAlert alert = new LowStockAlert(1L, "Product A", "A123", "Electronics", 2, 10, LocalDateTime.now());
+
+        when(lowStockTracker.lowStock()).thenReturn(List.of(alert));
+
+        List<LowStockAlert> alerts = productService.listLowStockProducts();
+
+        assertEquals(1, alerts.size());
+        assertEquals(2, alerts.get(0).getStock());
+    }
+
+    @Test
+    void testUpdatePriceRecordsPriceHistory() {
+        LocalDateTime updatedAt = LocalDateTime.of(2024, 12, 10, 12, 0);
+        Product product = new Product(1L, "Product A", "Description", 20.0, 100, "Electronics", "A123", updatedAt, updatedAt);
+
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        productService.updatePrice(1L, 20.0);
+
+        verify(priceHistoryRepository, times(1)).save(argThat(entry ->
+                entry.getProductId().equals(1L) && entry.getPrice().equals(20.0) && entry.getRecordedAt().equals(product.getUpdatedAt())));
+    }
+
+    @Test
+    void testAddProductWithoutPriceRecordsNoPriceHistory() {
+        Product product = new Product(1L, "Product A", "Description", null, 100, "Electronics", "A123", LocalDateTime.now(), LocalDateTime.now());
+
+        when(productRepository.save(any(Product.class))).thenReturn(product);
+
+        Product savedProduct = productService.addProduct(product);
+
+        assertNull(savedProduct.getPrice());
+        verifyNoInteractions(priceHistoryRepository);
+    }
+
+    @Test
+    void testGetPriceHistory() {
+        LocalDateTime from = LocalDateTime.of(2024, 12, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 12, 31, 0, 0);
+        PriceHistory entry = new PriceHistory(1L, 1L, 10.0, LocalDateTime.of(2024, 12, 10, 12, 0));
+
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(priceHistoryRepository.findByProductIdAndRecordedAtBetweenOrderByRecordedAtAscIdAsc(1L, from, to)).thenReturn(List.of(entry));
+
+        List<PriceHistory> history = productService.getPriceHistory(1L, from, to);
+
+        assertEquals(1, history.size());
+        assertEquals(10.0, history.get(0).getPrice());
+    }
+
+    @Test
+    void testGetPriceHistoryDefaultsToLastThirtyDays() {
+        LocalDateTime to = LocalDateTime.of(2024, 12, 31, 0, 0);
+        when(productRepository.existsById(1L)).thenReturn(true);
+
+        productService.getPriceHistory(1L, null, to);
+
+        verify(priceHistoryRepository).findByProductIdAndRecordedAtBetweenOrderByRecordedAtAscIdAsc(1L, to.minusDays(30), to);
+    }
+
+    @Test
+    void testGetPriceHistoryProductNotFound() {
+        when(productRepository.existsById(1L)).thenReturn(false);
+
+        assertThrows(ProductNotFoundException.class, () -> productService.getPriceHistory(1L, null, null));
+        verifyNoInteractions(priceHistoryRepository);
+    }
+
+    @Test
+    void testGetPriceHistoryRejectsInvertedRange() {
+        LocalDateTime from = LocalDateTime.of(2024, 12, 31, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 12, 1, 0, 0);
+
+        assertThrows(InvalidRequestException.class, () -> productService.getPriceHistory(1L, from, to));
+    }
+
+    @Test
+    void testGetPriceHistoryAggregates() {
+        LocalDateTime from = LocalDateTime.of(2024, 12, 10, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 12, 11, 0, 0);
+
+        when(productRepository.existsById(1L)).thenReturn(true);
+        when(priceHistoryRepository.streamPricePoints(1L, from, to)).thenReturn(Stream.of(
+                pricePoint(10.0, LocalDateTime.of(2024, 12, 10, 12, 5)),
+                pricePoint(15.0, LocalDateTime.of(2024, 12, 10, 12, 30)),
+                pricePoint(12.0, LocalDateTime.of(2024, 12, 10, 12, 59)),
+                pricePoint(9.0, LocalDateTime.of(2024, 12, 10, 15, 0))));
+
+        List<PriceHistoryBucket> buckets = productService.getPriceHistoryAggregates(1L, from, to, "PT1H");
+
+        assertEquals(2, buckets.size());
+        assertEquals(new PriceHistoryBucket(LocalDateTime.of(2024, 12, 10, 12, 0), 10.0, 15.0, 12.0, 3), buckets.get(0));
+        assertEquals(new PriceHistoryBucket(LocalDateTime.of(2024, 12, 10, 15, 0), 9.0, 9.0, 9.0, 1), buckets.get(1));
+    }
+
+    @Test
+    void testGetPriceHistoryAggregatesRejectsInvalidBucket() {
+        assertThrows(InvalidRequestException.class, () -> productService.getPriceHistoryAggregates(1L, null, null, "hourly"));
+        assertThrows(InvalidRequestException.class, () -> productService.getPriceHistoryAggregates(1L, null, null, "PT0S"));
+    }
+
+    private static PriceHistoryRepository.PricePoint pricePoint(Double price, LocalDateTime recordedAt) {
+        return new PriceHistoryRepository.PricePoint() {
+            @Override
+            public Double getPrice() {
+                return price;
+            }
+
+            @Override
+            public LocalDateTime getRecordedAt() {
+                return recordedAt;
+            }
+        };
+    }
 }
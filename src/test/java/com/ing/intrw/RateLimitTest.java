@@ -0,0 +1,103 @@
+package com.ing.intrw;
+
+import com.ing.intrw.service.RateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "products.rate-limit.user.capacity=20",
+        "products.rate-limit.user.refill-per-second=0.01",
+        "products.rate-limit.manager.capacity=3",
+        "products.rate-limit.manager.refill-per-second=0.01",
+        "products.rate-limit.max-concurrent-requests=2",
+        "spring.jpa.properties.hibernate.search.backend.directory.type=local-heap"
+})
+@AutoConfigureMockMvc
+class RateLimitTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testExpensiveEndpointsThrottledPerUser() throws Exception {
+        mockMvc.perform(get("/api/products/").header("Authorization", basic("user", "user123")))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/products/sort/name").header("Authorization", basic("user", "user123")))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(get("/api/products/").header("Authorization", basic("user", "user123")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        assertTrue(meterRegistry.get("products.rate-limit.requests")
+                .tag("role", "USER").tag("outcome", "throttled").counter().count() >= 1);
+    }
+
+    @Test
+    void testCheapEndpointsUseFewerTokens() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/products/{id}", 1).header("Authorization", basic("manager", "manager123")))
+                    .andExpect(status().isNotFound());
+        }
+
+        mockMvc.perform(get("/api/products/{id}", 1).header("Authorization", basic("manager", "manager123")))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(get("/api/products/{id}", 1).header("Authorization", basic("admin", "admin123")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testLoadIsShedAboveConcurrencyLimit() throws Exception {
+        assertTrue(rateLimiter.tryEnter().allowed());
+        assertTrue(rateLimiter.tryEnter().allowed());
+        try {
+            mockMvc.perform(get("/api/products/{id}", 1).header("Authorization", basic("admin", "admin123")))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string("Retry-After", "1"));
+            // shed before the password is checked
+            mockMvc.perform(get("/api/products/{id}", 1).header("Authorization", basic("admin", "wrong")))
+                    .andExpect(status().isServiceUnavailable());
+        } finally {
+            rateLimiter.exit();
+            rateLimiter.exit();
+        }
+
+        mockMvc.perform(get("/api/products/{id}", 1).header("Authorization", basic("admin", "admin123")))
+                .andExpect(status().isNotFound());
+        assertTrue(meterRegistry.get("products.rate-limit.requests")
+                .tag("role", "UNAUTHENTICATED").tag("outcome", "shed").counter().count() >= 2);
+    }
+
+    @Test
+    void testDecisionCountersAreRegisteredUpFront() {
+        for (String role : List.of("ADMIN", "MANAGER", "USER")) {
+            assertNotNull(meterRegistry.find("products.rate-limit.requests")
+                    .tag("role", role).tag("outcome", "allowed").counter());
+            assertNotNull(meterRegistry.find("products.rate-limit.requests")
+                    .tag("role", role).tag("outcome", "throttled").counter());
+        }
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+}
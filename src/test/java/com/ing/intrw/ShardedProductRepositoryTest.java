@@ -0,0 +1,176 @@
+package com.ing.intrw;
+
+import com.ing.intrw.exception.SearchUnavailableException;
+import com.ing.intrw.model.Product;
+import com.ing.intrw.repository.ProductRepository;
+import com.ing.intrw.repository.ShardedProductRepository;
+import com.ing.intrw.service.ProductService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "products.sharding.enabled=true",
+        "products.sharding.shard-count=3",
+        "products.sharding.url-template=jdbc:h2:mem:product-shard-%d;DB_CLOSE_DELAY=-1",
+        "spring.jpa.properties.hibernate.search.backend.directory.type=local-heap"
+})
+class ShardedProductRepositoryTest {
+
+    private static final String[] CATEGORIES = {"Electronics", "Furniture", "Kitchen", "Garden", "Toys"};
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductService productService;
+
+    private List<Product> saved;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            products.add(new Product("Product " + (char) ('A' + (i * 7) % 26) + i, "Description", 5.0 + (i * 13) % 100,
+                    (i * 11) % 40, CATEGORIES[i % CATEGORIES.length], "SKU-" + i));
+        }
+        saved = productRepository.saveAll(products);
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testRepositoryIsSharded() {
+        assertInstanceOf(ShardedProductRepository.class, productRepository);
+    }
+
+    @Test
+    void testProductsArePlacedOnTheirCategoryShard() {
+        ShardedProductRepository sharded = (ShardedProductRepository) productRepository;
+        Set<Integer> usedShards = new HashSet<>();
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < saved.size(); i++) {
+            Product product = saved.get(i);
+            assertEquals("SKU-" + i, product.getSku());
+            assertEquals(sharded.shardOfCategory(product.getCategory()), sharded.shardOf(product.getId()));
+            usedShards.add(sharded.shardOf(product.getId()));
+            ids.add(product.getId());
+        }
+        assertEquals(30, ids.size());
+        assertTrue(usedShards.size() > 1);
+    }
+
+    @Test
+    void testFindByIdAndCategory() {
+        Product product = saved.get(7);
+
+        assertEquals(product.getSku(), productRepository.findById(product.getId()).orElseThrow().getSku());
+
+        List<Product> kitchen = productRepository.findByCategory("Kitchen");
+        assertEquals(6, kitchen.size());
+        assertTrue(kitchen.stream().allMatch(p -> "Kitchen".equals(p.getCategory())));
+    }
+
+    @Test
+    void testSortedListingsAreMergedAcrossShards() {
+        List<Product> byName = productRepository.findAll(Sort.by(Sort.Order.asc("name")));
+        List<Product> expectedByName = new ArrayList<>(saved);
+        expectedByName.sort(Comparator.comparing(Product::getName));
+        assertEquals(expectedByName.stream().map(Product::getId).toList(), byName.stream().map(Product::getId).toList());
+
+        List<Product> byStockDesc = productRepository.findAll(Sort.by(Sort.Order.desc("stock"), Sort.Order.asc("id")));
+        List<Product> expectedByStock = new ArrayList<>(saved);
+        expectedByStock.sort(Comparator.comparing(Product::getStock).reversed().thenComparing(Product::getId));
+        assertEquals(expectedByStock.stream().map(Product::getId).toList(), byStockDesc.stream().map(Product::getId).toList());
+    }
+
+    @Test
+    void testPagedListingAcrossShards() {
+        Page<Product> page = productRepository.findAll(PageRequest.of(2, 4, Sort.by("price", "id")));
+
+        List<Product> expected = new ArrayList<>(saved);
+        expected.sort(Comparator.comparing(Product::getPrice).thenComparing(Product::getId));
+        assertEquals(30, page.getTotalElements());
+        assertEquals(expected.subList(8, 12).stream().map(Product::getId).toList(),
+                page.getContent().stream().map(Product::getId).toList());
+    }
+
+    @Test
+    void testFanOutQueries() {
+        long expectedInRange = saved.stream().filter(p -> p.getPrice() >= 20.0 && p.getPrice() <= 60.0).count();
+        long expectedLowStock = saved.stream().filter(p -> p.getStock() < 10).count();
+
+        assertEquals(30, productRepository.count());
+        assertEquals(30, productRepository.findAll().size());
+        assertEquals(expectedInRange, productRepository.findByPriceBetween(20.0, 60.0).size());
+        assertEquals(expectedLowStock, productRepository.findByStockLessThan(10).size());
+        assertEquals(3, productRepository.findAllById(List.of(saved.get(0).getId(), saved.get(1).getId(), saved.get(2).getId())).size());
+    }
+
+    @Test
+    void testServiceUpdatesAndDeletesThroughShards() {
+        Product product = saved.get(3);
+
+        productService.updatePrice(product.getId(), 999.0);
+        productService.updateStockQuantity(product.getId(), 1);
+
+        Product updated = productRepository.findById(product.getId()).orElseThrow();
+        assertEquals(999.0, updated.getPrice());
+        assertEquals(1, updated.getStock());
+
+        productService.deleteItemById(product.getId());
+        assertTrue(productRepository.findById(product.getId()).isEmpty());
+        assertEquals(29, productRepository.count());
+    }
+
+    @Test
+    void testFluentQueryByExampleAcrossShards() {
+        Product probe = new Product();
+        probe.setCategory("Garden");
+        Example<Product> example = Example.of(probe);
+        List<Product> expected = saved.stream()
+                .filter(p -> "Garden".equals(p.getCategory()))
+                .sorted(Comparator.comparing(Product::getPrice).thenComparing(Product::getId))
+                .toList();
+
+        long count = productRepository.findBy(example, query -> query.count());
+        boolean exists = productRepository.findBy(example, query -> query.exists());
+        assertEquals(expected.size(), count);
+        assertTrue(exists);
+        assertEquals(expected.stream().map(Product::getId).toList(),
+                productRepository.findBy(example, query -> query.sortBy(Sort.by("price", "id")).all()).stream().map(Product::getId).toList());
+        assertEquals(expected.get(0).getId(),
+                productRepository.findBy(example, query -> query.sortBy(Sort.by("price", "id")).firstValue()).getId());
+        assertEquals(expected.subList(0, 2).stream().map(Product::getId).toList(),
+                productRepository.findBy(example, query -> query.sortBy(Sort.by("price", "id")).limit(2).all()).stream().map(Product::getId).toList());
+        assertEquals(expected.size(), productRepository.findBy(example, query -> query.page(PageRequest.of(0, 2))).getTotalElements());
+        assertThrows(IncorrectResultSizeDataAccessException.class, () -> productRepository.findBy(example, query -> query.oneValue()));
+
+        Product skuProbe = new Product();
+        skuProbe.setSku(saved.get(4).getSku());
+        assertEquals(saved.get(4).getId(), productRepository.findBy(Example.of(skuProbe), query -> query.oneValue()).getId());
+    }
+
+    @Test
+    void testTextSearchIsUnavailable() {
+        assertThrows(SearchUnavailableException.class, () -> productService.searchProducts("Product", 0, 10));
+    }
+}
@@ -0,0 +1,141 @@
+package com.ing.intrw;
+
+import com.ing.intrw.service.StockUpdateJournal;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StockUpdateJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecoverEmptyJournal() throws Exception {
+        StockUpdateJournal journal = new StockUpdateJournal(directory, false);
+
+        assertTrue(journal.recover().isEmpty());
+        journal.close();
+    }
+
+    @Test
+    void testRecoverKeepsLatestUpdatePerProduct() throws Exception {
+        StockUpdateJournal journal = new StockUpdateJournal(directory, true);
+        journal.recover();
+        journal.append(1L, 10);
+        journal.append(2L, 20);
+        journal.append(1L, 15);
+        journal.close();
+
+        Map<Long, Integer> recovered = new StockUpdateJournal(directory, false).recover();
+
+        assertEquals(Map.of(1L, 15, 2L, 20), recovered);
+    }
+
+    @Test
+    void testRecoverAfterCrashDuringFlush() throws Exception {
+        StockUpdateJournal journal = new StockUpdateJournal(directory, false);
+        journal.recover();
+        journal.append(1L, 10);
+        journal.append(2L, 20);
+        journal.rotate();
+        journal.append(1L, 11);
+        journal.close();
+
+        Map<Long, Integer> recovered = new StockUpdateJournal(directory, false).recover();
+
+        assertEquals(Map.of(1L, 11, 2L, 20), recovered);
+    }
+
+    @Test
+    void testDiscardRotatedDropsFlushedUpdates() throws Exception {
+        StockUpdateJournal journal = new StockUpdateJournal(directory, false);
+        journal.recover();
+        journal.append(1L, 10);
+        journal.rotate();
+        journal.append(2L, 20);
+        journal.discardRotated();
+        journal.close();
+
+        Map<Long, Integer> recovered = new StockUpdateJournal(directory, false).recover();
+
+        assertEquals(Map.of(2L, 20), recovered);
+    }
+
+    @Test
+    void testRotateKeepsUndiscardedRotatedJournal() throws Exception {
+        StockUpdateJournal journal = new StockUpdateJournal(directory, false);
+        journal.recover();
+        journal.append(1L, 10);
+        journal.append(2L, 20);
+        journal.rotate();
+        journal.append(1L, 11);
+        journal.rotate();
+        journal.append(3L, 30);
+        journal.close();
+
+        Map<Long, Integer> recovered = new StockUpdateJournal(directory, false).recover();
+
+        assertEquals(Map.of(1L, 11, 2L, 20, 3L, 30), recovered);
+    }
+
+    @Test
+    void testRecoverIgnoresTornLine() throws Exception {
+        StockUpdateJournal journal = new StockUpdateJournal(directory, false);
+        journal.recover();
+        journal.append(1L, 10);
+        journal.close();
+        Files.writeString(directory.resolve("stock-updates.journal"), "2,", StandardCharsets.US_ASCII, StandardOpenOption.APPEND);
+
+        Map<Long, Integer> recovered = new StockUpdateJournal(directory, false).recover();
+
+        assertEquals(Map.of(1L, 10), recovered);
+    }
+
+    @Test
+    void testConcurrentAppendsWithGroupCommitAreAllRecovered() throws Exception {
+        StockUpdateJournal journal = new StockUpdateJournal(directory, true);
+        journal.recover();
+        int threads = 8;
+        int updatesPerThread = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> results = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long productId = t;
+            results.add(executor.submit(() -> {
+                start.await();
+                for (int stock = 0; stock < updatesPerThread; stock++) {
+                    journal.sync(journal.append(productId, stock));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> result : results) {
+            result.get();
+        }
+        executor.shutdown();
+        journal.close();
+
+        Map<Long, Integer> expected = new HashMap<>();
+        for (long productId = 0; productId < threads; productId++) {
+            expected.put(productId, updatesPerThread - 1);
+        }
+        assertEquals(expected, new StockUpdateJournal(directory, false).recover());
+    }
+}
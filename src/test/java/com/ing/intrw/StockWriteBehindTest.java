@@ -0,0 +1,131 @@
+package com.ing.intrw;
+
+import com.ing.intrw.model.Product;
+import com.ing.intrw.repository.ProductRepository;
+import com.ing.intrw.service.ProductService;
+import com.ing.intrw.service.StockWriteBehindBuffer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "products.stock.write-behind.enabled=true",
+        "products.stock.write-behind.flush-interval-ms=60000",
+        "spring.jpa.properties.hibernate.search.backend.directory.type=local-heap"
+})
+class StockWriteBehindTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockWriteBehindBuffer stockWriteBehindBuffer;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) throws IOException {
+        String directory = Files.createTempDirectory("stock-journal").toString();
+        registry.add("products.stock.write-behind.journal-dir", () -> directory);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stockWriteBehindBuffer.flush();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void testStockUpdatesAreBufferedUntilFlush() {
+        Product saved = productService.addProduct(new Product("Product A", "Description", 10.0, 100, "Electronics", "A123"));
+
+        Product updated = productService.updateStockQuantity(saved.getId(), 40);
+
+        assertEquals(40, updated.getStock());
+        assertEquals(100, productRepository.findById(saved.getId()).orElseThrow().getStock());
+        assertEquals(40, productService.findProduct(saved.getId()).orElseThrow().getStock());
+
+        stockWriteBehindBuffer.flush();
+
+        assertEquals(40, productRepository.findById(saved.getId()).orElseThrow().getStock());
+        assertEquals(0, stockWriteBehindBuffer.pendingCount());
+    }
+
+    @Test
+    void testUpdatesAreCoalescedPerProduct() {
+        Product first = productService.addProduct(new Product("Product A", "Description", 10.0, 100, "Electronics", "A123"));
+        Product second = productService.addProduct(new Product("Product B", "Description", 20.0, 200, "Furniture", "B456"));
+        for (int stock = 1; stock <= 50; stock++) {
+            productService.updateStockQuantity(first.getId(), stock);
+            productService.updateStockQuantity(second.getId(), stock * 2);
+        }
+        assertEquals(2, stockWriteBehindBuffer.pendingCount());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        stockWriteBehindBuffer.flush();
+
+        assertEquals(2, statistics.getEntityUpdateCount());
+        assertEquals(1, statistics.getTransactionCount());
+        assertEquals(50, productRepository.findById(first.getId()).orElseThrow().getStock());
+        assertEquals(100, productRepository.findById(second.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void testUpdatesForDeletedProductsAreDropped() {
+        Product saved = productService.addProduct(new Product("Product A", "Description", 10.0, 100, "Electronics", "A123"));
+        productService.updateStockQuantity(saved.getId(), 5);
+        productRepository.deleteById(saved.getId());
+
+        stockWriteBehindBuffer.flush();
+
+        assertEquals(0, stockWriteBehindBuffer.pendingCount());
+        assertTrue(productRepository.findById(saved.getId()).isEmpty());
+    }
+
+    @Test
+    void testFlushCommittedDuringPriceUpdateIsKept() {
+        Product saved = productService.addProduct(new Product("Product A", "Description", 10.0, 100, "Electronics", "A123"));
+        productService.updateStockQuantity(saved.getId(), 40);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    // the price update holds the product as it was before the flush
+                    productRepository.findById(saved.getId()).orElseThrow();
+                    CompletableFuture.runAsync(stockWriteBehindBuffer::flush).join();
+                    productService.updatePrice(saved.getId(), 99.0);
+                }));
+
+        Product stored = productRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(40, stored.getStock());
+        assertEquals(0, stockWriteBehindBuffer.pendingCount());
+
+        productService.updatePrice(saved.getId(), 99.0);
+
+        stored = productRepository.findById(saved.getId()).orElseThrow();
+        assertEquals(99.0, stored.getPrice());
+        assertEquals(40, stored.getStock());
+    }
+}
@@ -0,0 +1,73 @@
+package com.ing.intrw;
+
+import com.ing.intrw.service.TokenBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void testConsumeUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 1, now::get);
+
+        assertEquals(0, bucket.tryConsume(4));
+        assertEquals(0, bucket.tryConsume(6));
+        assertTrue(bucket.tryConsume(1) > 0);
+    }
+
+    @Test
+    void testReportsWaitUntilTokensAreAvailable() {
+        TokenBucket bucket = new TokenBucket(10, 2, now::get);
+        bucket.tryConsume(10);
+
+        long waitNanos = bucket.tryConsume(5);
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(2500), waitNanos);
+    }
+
+    @Test
+    void testRefillsOverTimeUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 2, now::get);
+        bucket.tryConsume(10);
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertEquals(4.0, bucket.availableTokens(), 0.0001);
+
+        now.addAndGet(TimeUnit.MINUTES.toNanos(1));
+        assertEquals(10.0, bucket.availableTokens(), 0.0001);
+    }
+
+    @Test
+    void testCostAboveCapacityIsClamped() {
+        TokenBucket bucket = new TokenBucket(5, 1, now::get);
+
+        assertEquals(0, bucket.tryConsume(50));
+    }
+
+    @Test
+    void testConcurrentConsumersNeverOverdraw() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(1000, 0.000001);
+        AtomicInteger granted = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 5000; i++) {
+            executor.execute(() -> {
+                if (bucket.tryConsume(1) == 0) {
+                    granted.incrementAndGet();
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, granted.get());
+    }
+}